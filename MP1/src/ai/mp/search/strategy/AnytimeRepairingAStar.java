@@ -0,0 +1,324 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * It is used to implement Anytime Repairing A * (ARA *) strategy. It runs weighted A * with
+ * heuristic weight starting from initial weight and lowered by weight step after every solution.
+ * <pre>
+ * Open list         - states to expand sorted by g + w * h
+ * Inconsistent list - expanded states whose g is lowered after they were expanded in current round
+ * </pre>
+ * Next round starts from open list and inconsistent list of previous round, so work of earlier rounds
+ * is reused and search is never restarted. Every state is expanded at most once in a round.
+ * Every improved solution is published to {@link SolutionListener} with its cost and bound, till
+ * bound reaches 1 (cheapest solution) or time budget is over. Time budget only stops improvement, so search
+ * runs past it till first solution is found or no state is left to expand.
+ * It works on PATH finding and multiple goal search.
+ *
+ * @author rudani2
+ *
+ */
+public class AnytimeRepairingAStar extends SearchOperation {
+
+    private final CompiledMaze maze;
+    private final SolutionListener listener;
+    private char[][] solutionMaze;
+    private int[] solutionPath;
+    private int[] goalOrder;
+    private double solutionBound = MazeConstant.DEFAULT_WEIGHT;
+    private long nodesExpanded = 0L;
+    private long stepCost = 0L;
+    private long solutionCost = 0L;
+
+    // Search state shared by rounds
+    private SearchProblem problem;
+    private IndexedMinHeap openState;
+    private BitSet closedState;
+    private BitSet inconsistentState;
+    private int[] parent;
+    private int[] approachableCost;
+    /**
+     * It holds the cost of move from parent to state. Cost of parent path can be below g of state
+     * when g of some state on it is lowered later, so solution cost is summed from it.
+     */
+    private int[] parentMoveCost;
+    private int[] successors;
+    private int[] moveCosts;
+    private int goalState = MazeConstant.NO_CELL;
+    private long heuristicFactor;
+
+    AnytimeRepairingAStar(CompiledMaze maze) {
+        this(maze, null);
+    }
+
+    /**
+     * It is used to create ARA * which publishes every improved solution to given listener. Without
+     * listener every improved solution is printed.
+     *
+     * @param maze
+     * @param listener
+     */
+    AnytimeRepairingAStar(CompiledMaze maze, SolutionListener listener) {
+        this.maze = maze;
+        this.listener = listener;
+    }
+
+    @Override
+    public void findPath() {
+        if (Preprocessing.isPathFind()) {
+            findPath(newPathFindProblem(maze, new ManhattanHeuristic(maze)));
+        } else if (Preprocessing.isMultipleGoal()) {
+            MultiGoalSearchProblem multiGoalProblem = new MultiGoalSearchProblem(maze
+                    , SearchConfiguration.NEAREST_MST_HEURISTIC);
+            // Some goal may be walled off from start position, then no path can cover all the goals
+            if (multiGoalProblem.areGoalsReachable()) {
+                findPath(multiGoalProblem);
+            }
+        } else {
+            throw new IllegalArgumentException("ARA * supports only PATH finding and Multiple GOAL");
+        }
+    }
+
+    /**
+     * It is used to run rounds of weighted A * with decreasing weight till cheapest solution is found
+     * or time budget is over after first solution.
+     *
+     * @param searchProblem
+     */
+    private void findPath(SearchProblem searchProblem) {
+        long startTime = System.nanoTime();
+        long deadline = startTime + (SearchConfiguration.getTimeBudgetMillis() * 1000000L);
+        this.problem = searchProblem;
+        this.openState = new IndexedMinHeap(MazeConstant.QUEUE_INITIAL_CAPACITY);
+        this.closedState = new BitSet();
+        this.inconsistentState = new BitSet();
+        int capacity = Math.max(MazeConstant.QUEUE_INITIAL_CAPACITY, problem.getStateCount());
+        this.parent = new int[capacity];
+        this.approachableCost = new int[capacity];
+        Arrays.fill(approachableCost, Integer.MAX_VALUE);
+        this.parentMoveCost = new int[capacity];
+        this.successors = new int[problem.getMaxSuccessorCount()];
+        this.moveCosts = new int[problem.getMaxSuccessorCount()];
+
+        double weight = SearchConfiguration.getInitialWeight();
+        this.heuristicFactor = getHeuristicFactor(weight);
+        int startState = problem.getStartState();
+        parent[startState] = startState;
+        approachableCost[startState] = 0;
+        openState.offer(startState, getPriority(startState));
+        if (problem.isGoal(startState)) {
+            goalState = startState;
+        }
+
+        while (true) {
+            boolean isComplete = improvePath(deadline);
+            if (goalState != MazeConstant.NO_CELL) {
+                long pathCost = getPathCost();
+                double bound = getSuboptimalityBound(pathCost);
+                // Weight bounds the solution only when round is complete
+                if (isComplete) {
+                    bound = Math.min(weight, bound);
+                }
+                if (solutionPath == null || pathCost < solutionCost || bound < solutionBound) {
+                    publishSolution(pathCost, bound, startTime);
+                }
+            }
+            if (!isComplete || solutionBound <= 1.0 || weight <= 1.0) {
+                break;
+            }
+            // Lower the weight and continue from open and inconsistent states of previous round
+            weight = Math.max(1.0, weight - SearchConfiguration.getWeightStep());
+            heuristicFactor = getHeuristicFactor(weight);
+            reorderOpenStates();
+            closedState.clear();
+        }
+        if (goalState == MazeConstant.NO_CELL) {
+            System.out.println("No solution found, goal can not be reached from start position");
+        }
+    }
+
+    /**
+     * It is used to expand states till goal state is cheaper than every open state, or till time is over
+     * once any goal state is reached.
+     *
+     * @param deadline
+     * @return boolean false if time is over before round completes
+     */
+    private boolean improvePath(long deadline) {
+        while (!openState.isEmpty()
+                && (goalState == MazeConstant.NO_CELL || getPriority(goalState) > openState.peekPriority())) {
+            if (goalState != MazeConstant.NO_CELL && System.nanoTime() >= deadline) {
+                return false;
+            }
+            int currentState = openState.poll();
+            closedState.set(currentState);
+            nodesExpanded += 1;
+
+            int successorCount = problem.getSuccessors(currentState, successors, moveCosts);
+            for (int i = 0; i < successorCount; i++) {
+                int child = successors[i];
+                ensureCapacity(child);
+                int approachedCost = approachableCost[currentState] + moveCosts[i];
+                if (approachedCost >= approachableCost[child]) {
+                    continue;
+                }
+                parent[child] = currentState;
+                approachableCost[child] = approachedCost;
+                parentMoveCost[child] = moveCosts[i];
+                if (problem.isGoal(child)
+                        && (goalState == MazeConstant.NO_CELL || approachedCost < approachableCost[goalState])) {
+                    goalState = child;
+                }
+                if (closedState.get(child)) {
+                    // Expanded in this round already, so it waits for next round
+                    inconsistentState.set(child);
+                } else {
+                    openState.update(child, getPriority(child));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * It is used to move inconsistent states into open list and order every open state by new weight.
+     */
+    private void reorderOpenStates() {
+        int[] states = drainOpenStates();
+        for (int state : states) {
+            openState.offer(state, getPriority(state));
+        }
+        for (int state = inconsistentState.nextSetBit(0); state >= 0; state = inconsistentState.nextSetBit(state + 1)) {
+            openState.update(state, getPriority(state));
+        }
+        inconsistentState.clear();
+    }
+
+    /**
+     * It is used to take every state out of open list.
+     *
+     * @return int[] open states
+     */
+    private int[] drainOpenStates() {
+        int[] states = new int[openState.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = openState.poll();
+        }
+        return states;
+    }
+
+    /**
+     * It is used to find how far current solution can be from cheapest solution. Every cheaper path
+     * passes through some open or inconsistent state, so path cost over lowest (g + h) among them is bound.
+     *
+     * @param pathCost
+     * @return double
+     */
+    private double getSuboptimalityBound(long pathCost) {
+        long lowestCost = pathCost;
+        // Open list is ordered by weighted cost, so every open state is checked
+        for (int state : drainOpenStates()) {
+            lowestCost = Math.min(lowestCost, approachableCost[state] + problem.getHeuristic(state));
+            openState.offer(state, getPriority(state));
+        }
+        for (int state = inconsistentState.nextSetBit(0); state >= 0; state = inconsistentState.nextSetBit(state + 1)) {
+            lowestCost = Math.min(lowestCost, approachableCost[state] + problem.getHeuristic(state));
+        }
+        return lowestCost == 0 ? 1.0 : (double) pathCost / lowestCost;
+    }
+
+    /**
+     * It is used to sum the move costs along parent path from goal state to start state.
+     *
+     * @return long
+     */
+    private long getPathCost() {
+        long pathCost = 0L;
+        for (int state = goalState; parent[state] != state; state = parent[state]) {
+            pathCost += parentMoveCost[state];
+        }
+        return pathCost;
+    }
+
+    /**
+     * It is used to save the solution reached at goal state and publish it.
+     *
+     * @param pathCost
+     * @param bound
+     * @param startTime
+     */
+    private void publishSolution(long pathCost, double bound, long startTime) {
+        int[] statePath = buildSolutionPath(parent, goalState);
+        int[] cellPath = problem.toCellPath(statePath);
+        this.solutionPath = cellPath;
+        this.stepCost = cellPath.length - 1;
+        this.solutionCost = pathCost;
+        this.solutionBound = bound;
+        this.goalOrder = problem.getGoalOrder(cellPath);
+        this.solutionMaze = null;
+        if (listener != null) {
+            listener.onSolution(cellPath, solutionCost, bound);
+        } else {
+            System.out.println("Solution cost " + solutionCost + " within bound " + String.format("%.3f", bound)
+                    + " after " + ((System.nanoTime() - startTime) / 1000000L) + " ms and "
+                    + nodesExpanded + " nodes expanded");
+        }
+    }
+
+    private void ensureCapacity(int state) {
+        if (state >= parent.length) {
+            int oldCapacity = parent.length;
+            int newCapacity = Math.max(oldCapacity * 2, state + 1);
+            parent = Arrays.copyOf(parent, newCapacity);
+            approachableCost = Arrays.copyOf(approachableCost, newCapacity);
+            parentMoveCost = Arrays.copyOf(parentMoveCost, newCapacity);
+            Arrays.fill(approachableCost, oldCapacity, newCapacity, Integer.MAX_VALUE);
+        }
+    }
+
+    private long getPriority(int state) {
+        return (approachableCost[state] * MazeConstant.WEIGHT_SCALE) + (heuristicFactor * problem.getHeuristic(state));
+    }
+
+    private static long getHeuristicFactor(double weight) {
+        return (long) Math.floor(weight * MazeConstant.WEIGHT_SCALE);
+    }
+
+    @Override
+    public char[][] getSolutionMaze() {
+        if (solutionMaze == null) {
+            solutionMaze = maze.toSolutionMatrix(solutionPath);
+            if (goalOrder != null) {
+                drawGoalOrder(solutionMaze, maze, goalOrder);
+            }
+        }
+        return solutionMaze;
+    }
+
+    @Override
+    public long getStepCost() {
+        return stepCost;
+    }
+
+    @Override
+    public long getSolutionCost() {
+        return solutionCost;
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public String getSearchStrategyName() {
+        return "ARA *";
+    }
+
+    @Override
+    public MazeMetrics getMetrics() {
+        return new MazeMetrics(stepCost, solutionCost, MazeConstant.DEFAULT_PENALTY, solutionBound);
+    }
+}
@@ -0,0 +1,291 @@
+package ai.mp.search.strategy;
+
+import java.util.Random;
+
+/**
+ * It is used to find good but not always cheapest order to cover every goal of multi goal maze.
+ * Tour starts at start position and ends at any goal. Leg cost is true maze distance taken from
+ * {@link GoalDistanceMatrix}.
+ * <pre>
+ * Nearest neighbour - build the first tour by always moving to nearest goal not yet covered
+ * 2-opt             - reverse a segment of tour if it makes the tour cheaper
+ * Or-opt            - move segment of 1 to 3 goals, as it is or reversed, to cheaper place in tour
+ * </pre>
+ * Local search is repeated till no move improves the tour. While time budget is left, best tour is
+ * perturbed by double bridge move (swap two middle parts of tour) and improved again, and the result
+ * is kept if it is cheaper. So tour returned at any moment is the best tour found so far.
+ *
+ * @author rudani2
+ *
+ */
+public class ApproximateTourSolver {
+
+    /**
+     * It marks the start position before first goal of tour.
+     */
+    private static final int START = -1;
+    /**
+     * It marks that there is no goal after last goal of tour.
+     */
+    private static final int NONE = -2;
+    private static final int MAX_SEGMENT_LENGTH = 3;
+    /**
+     * It is the seed of perturbation, fixed so that same maze and budget give same tour.
+     */
+    private static final long PERTURBATION_SEED = 17L;
+
+    private final GoalDistanceMatrix distances;
+    private final int goalCount;
+    private long tourCost = 0L;
+    private long improvementCount = 0L;
+
+    ApproximateTourSolver(GoalDistanceMatrix distances) {
+        this.distances = distances;
+        this.goalCount = distances.getGoalIndex().getGoalCount();
+    }
+
+    /**
+     * It is used to build tour and improve it till time budget is over.
+     *
+     * @param timeBudgetMillis
+     * @return int[] goal indices in visiting order
+     */
+    public int[] solve(long timeBudgetMillis) {
+        long deadline = System.nanoTime() + (timeBudgetMillis * 1000000L);
+        int[] bestTour = buildNearestNeighbourTour();
+        improve(bestTour, deadline);
+        long bestCost = getTourCost(bestTour);
+        // Double bridge needs three cut points inside tour
+        if (goalCount >= 4) {
+            Random random = new Random(PERTURBATION_SEED);
+            int[] tour = new int[goalCount];
+            while (System.nanoTime() < deadline) {
+                applyDoubleBridge(bestTour, tour, random);
+                improve(tour, deadline);
+                long cost = getTourCost(tour);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    System.arraycopy(tour, 0, bestTour, 0, goalCount);
+                }
+            }
+        }
+        this.tourCost = bestCost;
+        return bestTour;
+    }
+
+    /**
+     * It is used to apply 2-opt and Or-opt moves till tour can not be improved or time is over.
+     *
+     * @param tour
+     * @param deadline
+     */
+    private void improve(int[] tour, long deadline) {
+        boolean isImproved = true;
+        while (isImproved && System.nanoTime() < deadline) {
+            isImproved = improveWithTwoOpt(tour, deadline);
+            isImproved |= improveWithOrOpt(tour, deadline);
+        }
+    }
+
+    /**
+     * It is used to perturb tour A B C D into A C B D where parts are split at random cut points.
+     *
+     * @param tour
+     * @param perturbedTour
+     * @param random
+     */
+    private void applyDoubleBridge(int[] tour, int[] perturbedTour, Random random) {
+        int first = 1 + random.nextInt(goalCount - 3);
+        int second = first + 1 + random.nextInt(goalCount - first - 2);
+        int third = second + 1 + random.nextInt(goalCount - second - 1);
+        int index = 0;
+        System.arraycopy(tour, 0, perturbedTour, index, first);
+        index += first;
+        System.arraycopy(tour, second, perturbedTour, index, third - second);
+        index += third - second;
+        System.arraycopy(tour, first, perturbedTour, index, second - first);
+        index += second - first;
+        System.arraycopy(tour, third, perturbedTour, index, goalCount - third);
+    }
+
+    /**
+     * It is used to build the first tour by moving from start position to nearest remaining goal.
+     *
+     * @return int[]
+     */
+    private int[] buildNearestNeighbourTour() {
+        int[] tour = new int[goalCount];
+        boolean[] isCovered = new boolean[goalCount];
+        int current = START;
+        for (int i = 0; i < goalCount; i++) {
+            int nearest = NONE;
+            for (int goal = 0; goal < goalCount; goal++) {
+                if (!isCovered[goal] && (nearest == NONE || getLegCost(current, goal) < getLegCost(current, nearest))) {
+                    nearest = goal;
+                }
+            }
+            isCovered[nearest] = true;
+            tour[i] = nearest;
+            current = nearest;
+        }
+        return tour;
+    }
+
+    /**
+     * It is used to apply every improving 2-opt move. Reversing tour[i..j] replaces legs
+     * (tour[i-1], tour[i]) and (tour[j], tour[j+1]) with (tour[i-1], tour[j]) and (tour[i], tour[j+1]).
+     *
+     * @param tour
+     * @param deadline
+     * @return boolean true if tour is improved
+     */
+    private boolean improveWithTwoOpt(int[] tour, long deadline) {
+        boolean isImproved = false;
+        for (int i = 0; i < goalCount - 1 && System.nanoTime() < deadline; i++) {
+            for (int j = i + 1; j < goalCount; j++) {
+                int before = getGoalAt(tour, i - 1);
+                int after = getGoalAt(tour, j + 1);
+                long delta = getLegCost(before, tour[j]) + getLegCost(tour[i], after)
+                        - getLegCost(before, tour[i]) - getLegCost(tour[j], after);
+                if (delta < 0) {
+                    reverse(tour, i, j);
+                    improvementCount += 1;
+                    isImproved = true;
+                }
+            }
+        }
+        return isImproved;
+    }
+
+    /**
+     * It is used to apply every improving Or-opt move. Segment is taken out of tour, and put back
+     * between two goals where it costs less than what was saved by taking it out.
+     *
+     * @param tour
+     * @param deadline
+     * @return boolean true if tour is improved
+     */
+    private boolean improveWithOrOpt(int[] tour, long deadline) {
+        boolean isImproved = false;
+        int[] segment = new int[MAX_SEGMENT_LENGTH];
+        for (int length = 1; length <= MAX_SEGMENT_LENGTH && length < goalCount; length++) {
+            for (int i = 0; i + length <= goalCount && System.nanoTime() < deadline; i++) {
+                int first = tour[i];
+                int last = tour[i + length - 1];
+                int before = getGoalAt(tour, i - 1);
+                int after = getGoalAt(tour, i + length);
+                long removalGain = getLegCost(before, first) + getLegCost(last, after) - getLegCost(before, after);
+                // Find cheapest place among the goals outside segment. Position p means after tour[p]
+                long bestDelta = 0L;
+                int bestPosition = NONE;
+                boolean isBestReversed = false;
+                for (int p = -1; p < goalCount; p++) {
+                    if (p >= i - 1 && p < i + length) {
+                        continue;
+                    }
+                    int x = getGoalAt(tour, p);
+                    int y = getGoalAt(tour, p + 1);
+                    long base = getLegCost(x, y);
+                    long forwardDelta = getLegCost(x, first) + getLegCost(last, y) - base - removalGain;
+                    long reversedDelta = getLegCost(x, last) + getLegCost(first, y) - base - removalGain;
+                    if (forwardDelta < bestDelta) {
+                        bestDelta = forwardDelta;
+                        bestPosition = p;
+                        isBestReversed = false;
+                    }
+                    if (reversedDelta < bestDelta) {
+                        bestDelta = reversedDelta;
+                        bestPosition = p;
+                        isBestReversed = true;
+                    }
+                }
+                if (bestPosition != NONE) {
+                    moveSegment(tour, segment, i, length, bestPosition, isBestReversed);
+                    improvementCount += 1;
+                    isImproved = true;
+                }
+            }
+        }
+        return isImproved;
+    }
+
+    /**
+     * It is used to move tour[from..from+length-1] after tour[position].
+     *
+     * @param tour
+     * @param segment buffer to hold the segment
+     * @param from
+     * @param length
+     * @param position index of goal after which segment is put or -1 for start position
+     * @param isReversed
+     */
+    private void moveSegment(int[] tour, int[] segment, int from, int length, int position, boolean isReversed) {
+        System.arraycopy(tour, from, segment, 0, length);
+        int insertAt;
+        if (position < from) {
+            // Shift goals between insert position and segment to right
+            insertAt = position + 1;
+            System.arraycopy(tour, insertAt, tour, insertAt + length, from - insertAt);
+        } else {
+            // Shift goals between segment and insert position to left
+            System.arraycopy(tour, from + length, tour, from, position - from - length + 1);
+            insertAt = position - length + 1;
+        }
+        for (int k = 0; k < length; k++) {
+            tour[insertAt + k] = isReversed ? segment[length - 1 - k] : segment[k];
+        }
+    }
+
+    private void reverse(int[] tour, int i, int j) {
+        while (i < j) {
+            int goal = tour[i];
+            tour[i++] = tour[j];
+            tour[j--] = goal;
+        }
+    }
+
+    private int getGoalAt(int[] tour, int index) {
+        if (index < 0) {
+            return START;
+        }
+        return index < goalCount ? tour[index] : NONE;
+    }
+
+    /**
+     * It is used to get maze distance of leg between two goals of tour. Leg which ends after last
+     * goal costs nothing since tour does not return.
+     *
+     * @param from goal index or {@link #START}
+     * @param to goal index or {@link #NONE}
+     * @return long
+     */
+    private long getLegCost(int from, int to) {
+        if (to == NONE) {
+            return 0L;
+        }
+        return from == START ? distances.getStartDistance(to) : distances.getDistance(from, to);
+    }
+
+    private long getTourCost(int[] tour) {
+        long cost = 0L;
+        int previous = START;
+        for (int goal : tour) {
+            cost += getLegCost(previous, goal);
+            previous = goal;
+        }
+        return cost;
+    }
+
+    public long getTourCost() {
+        return tourCost;
+    }
+
+    /**
+     * It is used to get the number of 2-opt and Or-opt moves applied on all the tours.
+     *
+     * @return long
+     */
+    public long getImprovementCount() {
+        return improvementCount;
+    }
+}
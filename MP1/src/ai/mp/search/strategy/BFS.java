@@ -1,8 +1,5 @@
 package ai.mp.search.strategy;
 
-import java.util.LinkedList;
-import java.util.Queue;
-
 /**
  * It is used to implement Breath-First-Search strategy.
  * BFS works like FIFO (First In First Out).
@@ -15,83 +12,91 @@ public class BFS extends SearchOperation {
 
     private static boolean isGoalReached = false;
 
-    private final int [][] inputMaze;
-    private final char[][] solutionMaze;
+    private final CompiledMaze maze;
+    private char[][] solutionMaze;
+    private int[] solutionPath;
     private long nodesExpanded = 0L;
     private long stepCost = 0L;
     private long solutionCost = 0L;
 
-    BFS(int [][] inputMaze, char[][] solutionMaze) {
-        this.inputMaze = inputMaze;
-        this.solutionMaze = solutionMaze;
+    BFS(CompiledMaze maze) {
+        this.maze = maze;
     }
 
     @Override
     public void findPath() {
-        Queue<Position> successor = new LinkedList<Position>();
+        if (SearchConfiguration.BITSET_FLOOD_FILL.equals(SearchConfiguration.getFloodFill())) {
+            findPathUsingFloodFill(new BitParallelFloodFill(maze));
+            return;
+        }
+        if (SearchConfiguration.PARALLEL_FLOOD_FILL.equals(SearchConfiguration.getFloodFill())) {
+            findPathUsingFloodFill(new ParallelBFS(maze, SearchConfiguration.getThreadCount()));
+            return;
+        }
+        // Every cell is added to frontier at most once, so the frontier never exceed cell count
+        int[] successor = new int[maze.getCellCount()];
+        // It holds the parent of every discovered cell. It also works as visited marker
+        int[] parent = maze.newParentArray();
         // Initialize the frontier queue with start position
-        successor.add(Preprocessing.getStartPosition());
-        // Recursively call find path from start position
-        findPathUsingBFS(successor);
+        successor[0] = maze.getStartCell();
+        parent[maze.getStartCell()] = maze.getStartCell();
+        findPathUsingBFS(successor, parent);
     }
 
-    private void findPathUsingBFS(Queue<Position> successor) {
-        Position childNode = null;
-        long level = 1L;
-        while (!successor.isEmpty()) {
-            childNode = successor.poll();
-            level -= 1;
-            if (inputMaze[childNode.getX()][childNode.getY()] == MazeConstant.GOAL_POSITION_MARKER) {
+    private void findPathUsingBFS(int[] successor, int[] parent) {
+        int head = 0;
+        int tail = 1;
+        int childNode = MazeConstant.NO_CELL;
+        int[] neighborOffsets = maze.getNeighborOffsets();
+        while (head < tail) {
+            childNode = successor[head++];
+            if (maze.isGoal(childNode)) {
                 isGoalReached = true;
                 break;
-            } else {
-                // Mark the node as visited
-                inputMaze[childNode.getX()][childNode.getY()] = MazeConstant.VISITED;
-                // Increment the node expanded count
-                nodesExpanded += 1;
-                // Get the successor node
-                getSuccessorNode(childNode, successor);
             }
-            // Check if level == 0
-            if (level == 0) {
-                stepCost += 1;
-                level = successor.size();
+            // Increment the node expanded count
+            nodesExpanded += 1;
+            // Get the successor node. It excludes if it is wall or already visited node
+            for (int offset : neighborOffsets) {
+                int child = childNode + offset;
+                if (!maze.isWall(child) && parent[child] == MazeConstant.NO_CELL) {
+                    parent[child] = childNode;
+                    successor[tail++] = child;
+                }
             }
         }
         // Check if solution exist
         if (isGoalReached) {
-            this.stepCost = drawSolutionPath(this.getSolutionMaze(), childNode).getStepCost();
+            this.solutionPath = buildSolutionPath(parent, childNode);
+            this.stepCost = solutionPath.length - 1;
         }
     }
 
     /**
-     * It is used to find successor for given node. 
-     * It excludes if it is wall or already visited node
-     * 
-     * @param node
-     * @return Collection
+     * It is used to find path to nearest goal from distance map of given {@link FloodFill}. Whole maze
+     * is flooded, so every reachable cell is counted as expanded.
+     *
+     * @param floodFill
      */
-    private void getSuccessorNode(Position node, Queue<Position> successor) {
-        Position child = null;
-        // Get the upper node
-        child = new Position((node.getX()-1), node.getY(), node, MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-        if (isChildValid(inputMaze, child)) {
-            successor.add(child);
-        }
-        // Get the lower node
-        child = new Position((node.getX()+1), node.getY(), node, MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-        if (isChildValid(inputMaze, child)) {
-            successor.add(child);
+    private void findPathUsingFloodFill(FloodFill floodFill) {
+        int[] distance = floodFill.getDistances(maze.getStartCell());
+        int nearestGoal = MazeConstant.NO_CELL;
+        for (int goalCell : maze.getGoalCells()) {
+            if (distance[goalCell] != GoalDistanceMatrix.UNREACHABLE
+                    && (nearestGoal == MazeConstant.NO_CELL || distance[goalCell] < distance[nearestGoal])) {
+                nearestGoal = goalCell;
+            }
         }
-        // Get the left node
-        child = new Position(node.getX(), (node.getY()-1), node, MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-        if (isChildValid(inputMaze, child)) {
-            successor.add(child);
+        for (int cellDistance : distance) {
+            if (cellDistance != GoalDistanceMatrix.UNREACHABLE) {
+                nodesExpanded += 1;
+            }
         }
-        // Get the right node
-        child = new Position(node.getX(), (node.getY()+1), node, MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-        if (isChildValid(inputMaze, child)) {
-            successor.add(child);
+        // Check if solution exist
+        if (nearestGoal != MazeConstant.NO_CELL) {
+            isGoalReached = true;
+            this.solutionPath = buildSolutionPath(maze, distance, nearestGoal);
+            this.stepCost = solutionPath.length - 1;
         }
     }
 
@@ -102,6 +107,9 @@ public class BFS extends SearchOperation {
 
     @Override
     public char[][] getSolutionMaze() {
+        if (solutionMaze == null) {
+            solutionMaze = maze.toSolutionMatrix(solutionPath);
+        }
         return solutionMaze;
     }
 
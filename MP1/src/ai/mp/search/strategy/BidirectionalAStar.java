@@ -0,0 +1,152 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * It is used to implement bidirectional A* Search strategy. Forward search runs from start position
+ * towards goal state and backward search runs from goal state towards start position. Both use
+ * Manhattan distance to the opposite end as heuristic function. The side with smaller open list is
+ * expanded next. Every time a side reaches a cell which is already reached by other side, cost of the
+ * path through that cell is recorded. The search stops once the cheapest recorded path is not more
+ * than the larger of the lowest f value of both open lists, since no cheaper path can exist.
+ *
+ * @author rudani2
+ *
+ */
+public class BidirectionalAStar extends SearchOperation {
+
+    private static boolean isGoalReached = false;
+
+    private final CompiledMaze maze;
+    private char[][] solutionMaze;
+    private int[] solutionPath;
+    private long nodesExpanded = 0L;
+    private long stepCost = 0L;
+    private long solutionCost = 0L;
+
+    private int bestCost = Integer.MAX_VALUE;
+    private int meetingCell = MazeConstant.NO_CELL;
+
+    BidirectionalAStar(CompiledMaze maze) {
+        this.maze = maze;
+    }
+
+    @Override
+    public void findPath() {
+        if (!Preprocessing.isPathFind()) {
+            throw new IllegalArgumentException("Bidirectional A* supports only PATH finding");
+        }
+        int startCell = maze.getStartCell();
+        int goalCell = maze.getGoalCell();
+        SearchSide forward = new SearchSide(startCell, goalCell);
+        SearchSide backward = new SearchSide(goalCell, startCell);
+        if (startCell == goalCell) {
+            bestCost = 0;
+            meetingCell = startCell;
+        }
+
+        while (!forward.openPosition.isEmpty() && !backward.openPosition.isEmpty()) {
+            // Stop when no unexpanded cell can lead to cheaper path
+            long lowerBound = Math.max(forward.openPosition.peekPriority(), backward.openPosition.peekPriority());
+            if (bestCost <= lowerBound) {
+                break;
+            }
+            if (forward.openPosition.size() <= backward.openPosition.size()) {
+                expand(forward, backward);
+            } else {
+                expand(backward, forward);
+            }
+        }
+        // Check if solution exist
+        if (meetingCell != MazeConstant.NO_CELL) {
+            isGoalReached = true;
+            this.solutionPath = BidirectionalBFS.joinPath(forward.parent, backward.parent, meetingCell);
+            this.stepCost = solutionPath.length - 1;
+            this.solutionCost = bestCost;
+        }
+    }
+
+    /**
+     * It is used to expand the cell with lowest f value from given side and record the path
+     * whenever a successor is already reached by other side.
+     *
+     * @param side
+     * @param otherSide
+     */
+    private void expand(SearchSide side, SearchSide otherSide) {
+        int currentPosition = side.openPosition.poll();
+        side.expandedPosition.set(currentPosition);
+        nodesExpanded += 1;
+        for (int offset : maze.getNeighborOffsets()) {
+            int child = currentPosition + offset;
+            if (maze.isWall(child) || side.expandedPosition.get(child)) {
+                continue;
+            }
+            int approachedCost = side.approachableCost[currentPosition] + MazeConstant.FORWARD_COST;
+            if (approachedCost < side.approachableCost[child]) {
+                side.parent[child] = currentPosition;
+                side.approachableCost[child] = approachedCost;
+                side.openPosition.update(child, approachedCost + maze.getManhattanDistance(side.targetCell, child));
+                // Check if other side has already reached this cell
+                if (otherSide.approachableCost[child] != Integer.MAX_VALUE
+                        && (approachedCost + otherSide.approachableCost[child]) < bestCost) {
+                    bestCost = approachedCost + otherSide.approachableCost[child];
+                    meetingCell = child;
+                }
+            }
+        }
+    }
+
+    @Override
+    public char[][] getSolutionMaze() {
+        if (solutionMaze == null) {
+            solutionMaze = maze.toSolutionMatrix(solutionPath);
+        }
+        return solutionMaze;
+    }
+
+    @Override
+    public long getStepCost() {
+        return stepCost;
+    }
+
+    @Override
+    public long getSolutionCost() {
+        return solutionCost;
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public String getSearchStrategyName() {
+        return "Bidirectional A *";
+    }
+
+    /**
+     * It holds the search state of one direction of bidirectional search.
+     */
+    private class SearchSide {
+
+        private final int targetCell;
+        private final IndexedMinHeap openPosition;
+        private final BitSet expandedPosition;
+        private final int[] parent;
+        private final int[] approachableCost;
+
+        SearchSide(int sourceCell, int targetCell) {
+            this.targetCell = targetCell;
+            this.openPosition = new IndexedMinHeap(maze.getCellCount());
+            this.expandedPosition = new BitSet(maze.getCellCount());
+            this.parent = maze.newParentArray();
+            this.approachableCost = new int[maze.getCellCount()];
+            Arrays.fill(approachableCost, Integer.MAX_VALUE);
+            parent[sourceCell] = sourceCell;
+            approachableCost[sourceCell] = 0;
+            openPosition.offer(sourceCell, maze.getManhattanDistance(targetCell, sourceCell));
+        }
+    }
+}
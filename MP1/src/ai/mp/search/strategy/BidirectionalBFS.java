@@ -0,0 +1,165 @@
+package ai.mp.search.strategy;
+
+/**
+ * It is used to implement bidirectional Breath-First-Search strategy. One BFS runs forward from
+ * start position and other runs backward from goal state. The side with smaller frontier expands
+ * its whole layer at a time. When a cell reached by one side is already reached by other side, the
+ * layer is finished and the cheapest meeting cell found in that layer gives the shortest path.
+ *
+ * @author rudani2
+ *
+ */
+public class BidirectionalBFS extends SearchOperation {
+
+    private static boolean isGoalReached = false;
+
+    private final CompiledMaze maze;
+    private char[][] solutionMaze;
+    private int[] solutionPath;
+    private long nodesExpanded = 0L;
+    private long stepCost = 0L;
+    private long solutionCost = 0L;
+
+    BidirectionalBFS(CompiledMaze maze) {
+        this.maze = maze;
+    }
+
+    @Override
+    public void findPath() {
+        if (!Preprocessing.isPathFind()) {
+            throw new IllegalArgumentException("Bidirectional BFS supports only PATH finding");
+        }
+        int cellCount = maze.getCellCount();
+        int[] forwardParent = maze.newParentArray();
+        int[] backwardParent = maze.newParentArray();
+        int[] forwardDistance = new int[cellCount];
+        int[] backwardDistance = new int[cellCount];
+        // Every cell is added to frontier of a side at most once
+        int[] forwardFrontier = new int[cellCount];
+        int[] backwardFrontier = new int[cellCount];
+
+        int startCell = maze.getStartCell();
+        int goalCell = maze.getGoalCell();
+        forwardParent[startCell] = startCell;
+        backwardParent[goalCell] = goalCell;
+        forwardFrontier[0] = startCell;
+        backwardFrontier[0] = goalCell;
+        // Frontier of each side is kept as [head, tail) of its queue
+        int forwardHead = 0;
+        int forwardTail = 1;
+        int backwardHead = 0;
+        int backwardTail = 1;
+
+        int meetingCell = startCell == goalCell ? startCell : MazeConstant.NO_CELL;
+        int bestCost = startCell == goalCell ? 0 : Integer.MAX_VALUE;
+        while (meetingCell == MazeConstant.NO_CELL && forwardHead < forwardTail && backwardHead < backwardTail) {
+            if ((forwardTail - forwardHead) <= (backwardTail - backwardHead)) {
+                int layerEnd = forwardTail;
+                for (; forwardHead < layerEnd; forwardHead++) {
+                    int cell = forwardFrontier[forwardHead];
+                    nodesExpanded += 1;
+                    for (int offset : maze.getNeighborOffsets()) {
+                        int child = cell + offset;
+                        if (maze.isWall(child) || forwardParent[child] != MazeConstant.NO_CELL) {
+                            continue;
+                        }
+                        forwardParent[child] = cell;
+                        forwardDistance[child] = forwardDistance[cell] + 1;
+                        forwardFrontier[forwardTail++] = child;
+                        if (backwardParent[child] != MazeConstant.NO_CELL
+                                && (forwardDistance[child] + backwardDistance[child]) < bestCost) {
+                            bestCost = forwardDistance[child] + backwardDistance[child];
+                            meetingCell = child;
+                        }
+                    }
+                }
+            } else {
+                int layerEnd = backwardTail;
+                for (; backwardHead < layerEnd; backwardHead++) {
+                    int cell = backwardFrontier[backwardHead];
+                    nodesExpanded += 1;
+                    for (int offset : maze.getNeighborOffsets()) {
+                        int child = cell + offset;
+                        if (maze.isWall(child) || backwardParent[child] != MazeConstant.NO_CELL) {
+                            continue;
+                        }
+                        backwardParent[child] = cell;
+                        backwardDistance[child] = backwardDistance[cell] + 1;
+                        backwardFrontier[backwardTail++] = child;
+                        if (forwardParent[child] != MazeConstant.NO_CELL
+                                && (forwardDistance[child] + backwardDistance[child]) < bestCost) {
+                            bestCost = forwardDistance[child] + backwardDistance[child];
+                            meetingCell = child;
+                        }
+                    }
+                }
+            }
+        }
+        // Check if solution exist
+        if (meetingCell != MazeConstant.NO_CELL) {
+            isGoalReached = true;
+            this.solutionPath = joinPath(forwardParent, backwardParent, meetingCell);
+            this.stepCost = solutionPath.length - 1;
+        }
+    }
+
+    /**
+     * It is used to join forward path from start to meeting cell with backward path from
+     * meeting cell to goal.
+     *
+     * @param forwardParent
+     * @param backwardParent
+     * @param meetingCell
+     * @return int[] cell path from start to goal
+     */
+    static int[] joinPath(int[] forwardParent, int[] backwardParent, int meetingCell) {
+        int forwardLength = 1;
+        for (int cell = meetingCell; forwardParent[cell] != cell; cell = forwardParent[cell]) {
+            forwardLength += 1;
+        }
+        int backwardLength = 0;
+        for (int cell = meetingCell; backwardParent[cell] != cell; cell = backwardParent[cell]) {
+            backwardLength += 1;
+        }
+        int[] path = new int[forwardLength + backwardLength];
+        int cell = meetingCell;
+        for (int i = forwardLength - 1; i >= 0; i--) {
+            path[i] = cell;
+            cell = forwardParent[cell];
+        }
+        cell = meetingCell;
+        for (int i = forwardLength; i < path.length; i++) {
+            cell = backwardParent[cell];
+            path[i] = cell;
+        }
+        return path;
+    }
+
+    @Override
+    public char[][] getSolutionMaze() {
+        if (solutionMaze == null) {
+            solutionMaze = maze.toSolutionMatrix(solutionPath);
+        }
+        return solutionMaze;
+    }
+
+    @Override
+    public long getStepCost() {
+        return stepCost;
+    }
+
+    @Override
+    public long getSolutionCost() {
+        return solutionCost;
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public String getSearchStrategyName() {
+        return "Bidirectional BFS";
+    }
+}
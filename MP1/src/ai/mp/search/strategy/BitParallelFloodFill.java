@@ -0,0 +1,179 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+
+/**
+ * It is used to run BFS from single source cell over whole maze, 64 cells at a time. Open cells and
+ * frontier are kept as bitsets with one long[] row of (column count + 63) / 64 words per maze row, where
+ * column c is bit (c mod 64) of word (c / 64).
+ * <pre>
+ * Next layer  - ((frontier shifted left and right, with carry from next and previous word)
+ *               | frontier of row above | frontier of row below) & open & ~visited
+ * Active rows - only rows next to frontier rows, and in them only words next to frontier words, are
+ *               looked at, so long corridors of maze do not scan whole bitset for every layer
+ * </pre>
+ * Distance of every reached cell is its layer number. Cell which can not be reached is kept at
+ * {@link GoalDistanceMatrix#UNREACHABLE} distance.
+ *
+ * @author rudani2
+ *
+ */
+class BitParallelFloodFill implements FloodFill {
+
+    private static final int WORD_BITS = 64;
+
+    private final CompiledMaze maze;
+    private final int rowCount;
+    private final int wordsPerRow;
+    private final long[] open;
+
+    BitParallelFloodFill(CompiledMaze maze) {
+        this.maze = maze;
+        this.rowCount = maze.getRowCount();
+        this.wordsPerRow = (maze.getColumnCount() + WORD_BITS - 1) / WORD_BITS;
+        this.open = new long[rowCount * wordsPerRow];
+        for (int row = 0; row < rowCount; row++) {
+            int cellId = maze.getCellId(row, 0);
+            for (int column = 0; column < maze.getColumnCount(); column++) {
+                if (!maze.isWall(cellId++)) {
+                    open[(row * wordsPerRow) + (column / WORD_BITS)] |= 1L << column;
+                }
+            }
+        }
+    }
+
+    /**
+     * It is used to build distance of every cell from given source cell, layer by layer.
+     *
+     * @param sourceCell
+     * @return int[] distance indexed by cell id
+     */
+    @Override
+    public int[] getDistances(int sourceCell) {
+        int[] distance = new int[maze.getCellCount()];
+        Arrays.fill(distance, GoalDistanceMatrix.UNREACHABLE);
+        long[] visited = new long[open.length];
+        long[] frontier = new long[open.length];
+        long[] next = new long[open.length];
+        int[] activeRows = new int[rowCount];
+        int[] nextRows = new int[rowCount];
+        int[] candidateRows = new int[rowCount];
+        int[] rowLayer = new int[rowCount];
+        Arrays.fill(rowLayer, -1);
+        // Lowest and highest frontier word of every row, lowest above highest if row has no frontier
+        int[] firstWord = new int[rowCount];
+        int[] lastWord = new int[rowCount];
+        int[] nextFirstWord = new int[rowCount];
+        int[] nextLastWord = new int[rowCount];
+        Arrays.fill(firstWord, wordsPerRow);
+        Arrays.fill(lastWord, -1);
+        Arrays.fill(nextFirstWord, wordsPerRow);
+        Arrays.fill(nextLastWord, -1);
+
+        int sourceRow = maze.getRow(sourceCell);
+        int sourceWord = (sourceRow * wordsPerRow) + (maze.getColumn(sourceCell) / WORD_BITS);
+        frontier[sourceWord] = 1L << maze.getColumn(sourceCell);
+        visited[sourceWord] = frontier[sourceWord];
+        distance[sourceCell] = 0;
+        firstWord[sourceRow] = sourceWord - (sourceRow * wordsPerRow);
+        lastWord[sourceRow] = firstWord[sourceRow];
+        activeRows[0] = sourceRow;
+        int activeCount = 1;
+        int layer = 0;
+        while (activeCount > 0) {
+            layer += 1;
+            // Collect frontier rows and rows above and below them once
+            int candidateCount = 0;
+            for (int i = 0; i < activeCount; i++) {
+                for (int row = Math.max(0, activeRows[i] - 1); row <= Math.min(rowCount - 1, activeRows[i] + 1); row++) {
+                    if (rowLayer[row] != layer) {
+                        rowLayer[row] = layer;
+                        candidateRows[candidateCount++] = row;
+                    }
+                }
+            }
+            int nextCount = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                int row = candidateRows[i];
+                int fromWord = firstWord[row];
+                int toWord = lastWord[row];
+                if (row > 0) {
+                    fromWord = Math.min(fromWord, firstWord[row - 1]);
+                    toWord = Math.max(toWord, lastWord[row - 1]);
+                }
+                if (row + 1 < rowCount) {
+                    fromWord = Math.min(fromWord, firstWord[row + 1]);
+                    toWord = Math.max(toWord, lastWord[row + 1]);
+                }
+                if (expandRow(row, Math.max(0, fromWord - 1), Math.min(wordsPerRow - 1, toWord + 1), frontier, next
+                        , visited, distance, layer, nextFirstWord, nextLastWord)) {
+                    nextRows[nextCount++] = row;
+                }
+            }
+            // Next layer becomes frontier, and cleared frontier is reused for layer after it
+            for (int i = 0; i < activeCount; i++) {
+                int row = activeRows[i];
+                Arrays.fill(frontier, (row * wordsPerRow) + firstWord[row], (row * wordsPerRow) + lastWord[row] + 1, 0L);
+                firstWord[row] = wordsPerRow;
+                lastWord[row] = -1;
+            }
+            int[] range = firstWord;
+            firstWord = nextFirstWord;
+            nextFirstWord = range;
+            range = lastWord;
+            lastWord = nextLastWord;
+            nextLastWord = range;
+            long[] words = frontier;
+            frontier = next;
+            next = words;
+            int[] rows = activeRows;
+            activeRows = nextRows;
+            nextRows = rows;
+            activeCount = nextCount;
+        }
+        return distance;
+    }
+
+    /**
+     * It is used to find cells of given words of row reached in given layer and to set their distance.
+     * Range of words holding reached cells is kept for next layer.
+     *
+     * @return boolean true if any cell of row is reached
+     */
+    private boolean expandRow(int row, int fromWord, int toWord, long[] frontier, long[] next, long[] visited
+            , int[] distance, int layer, int[] nextFirstWord, int[] nextLastWord) {
+        int base = row * wordsPerRow;
+        boolean isReached = false;
+        for (int word = fromWord; word <= toWord; word++) {
+            int index = base + word;
+            long current = frontier[index];
+            long spread = (current << 1) | (current >>> 1);
+            if (word > 0) {
+                spread |= frontier[index - 1] >>> (WORD_BITS - 1);
+            }
+            if (word + 1 < wordsPerRow) {
+                spread |= frontier[index + 1] << (WORD_BITS - 1);
+            }
+            if (row > 0) {
+                spread |= frontier[index - wordsPerRow];
+            }
+            if (row + 1 < rowCount) {
+                spread |= frontier[index + wordsPerRow];
+            }
+            long reached = spread & open[index] & ~visited[index];
+            next[index] = reached;
+            if (reached != 0L) {
+                isReached = true;
+                nextFirstWord[row] = Math.min(nextFirstWord[row], word);
+                nextLastWord[row] = word;
+                visited[index] |= reached;
+                int firstCell = maze.getCellId(row, word * WORD_BITS);
+                while (reached != 0L) {
+                    distance[firstCell + Long.numberOfTrailingZeros(reached)] = layer;
+                    reached &= reached - 1;
+                }
+            }
+        }
+        return isReached;
+    }
+}
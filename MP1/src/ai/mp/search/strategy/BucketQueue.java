@@ -0,0 +1,250 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+
+/**
+ * It is used as open list when priorities are small integers, as with unit move cost, turn cost and
+ * Manhattan distance. It is a bucket queue (Dial's queue) with one bucket per priority value.
+ * <pre>
+ * bucket  - circular array of buckets, priority p is kept in bucket p mod bucket count
+ * next    - holds the next id in bucket of every id
+ * prev    - holds the previous id in bucket of every id, -1 for first id and -2 if id is not queued
+ * cursor  - no queued priority is below cursor, so lowest priority is found by moving it forward
+ * </pre>
+ * Every queued priority is kept within bucket count of cursor, so every bucket holds one priority only.
+ * Buckets are doubled when priorities spread wider. Push, decrease key and remove are O(1). Poll moves
+ * cursor over empty buckets, which is O(1) amortized when priorities mostly grow as in A * search.
+ * Cursor moves back when lower priority is pushed, so non monotone priorities (Greedy) are still ordered.
+ *
+ * @author rudani2
+ *
+ */
+public class BucketQueue implements PriorityOpenList {
+
+    private static final int FIRST_IN_BUCKET = -1;
+    private static final int ABSENT = -2;
+    private static final int INITIAL_BUCKET_COUNT = 1 << 10;
+    private static final int MAX_BUCKET_COUNT = 1 << 26;
+
+    private int[] bucket;
+    private int bucketMask;
+    private int[] next;
+    private int[] prev;
+    private long[] priority;
+    private long cursor = 0L;
+    /**
+     * No queued priority is above it. It is not lowered on poll, so it may be above highest priority.
+     */
+    private long highestPriority = 0L;
+    private int size = 0;
+
+    BucketQueue(int capacity) {
+        int initialCapacity = Math.max(capacity, MazeConstant.QUEUE_INITIAL_CAPACITY);
+        this.bucket = new int[INITIAL_BUCKET_COUNT];
+        this.bucketMask = INITIAL_BUCKET_COUNT - 1;
+        Arrays.fill(this.bucket, FIRST_IN_BUCKET);
+        this.next = new int[initialCapacity];
+        this.prev = new int[initialCapacity];
+        this.priority = new long[initialCapacity];
+        Arrays.fill(this.prev, ABSENT);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return id < prev.length && prev[id] != ABSENT;
+    }
+
+    @Override
+    public long getPriority(int id) {
+        return priority[id];
+    }
+
+    @Override
+    public boolean offer(int id, long newPriority) {
+        if (contains(id)) {
+            return decreaseKey(id, newPriority);
+        }
+        ensureCapacity(id + 1);
+        insert(id, newPriority);
+        return true;
+    }
+
+    @Override
+    public void update(int id, long newPriority) {
+        if (contains(id)) {
+            unlink(id);
+        } else {
+            ensureCapacity(id + 1);
+        }
+        insert(id, newPriority);
+    }
+
+    @Override
+    public boolean decreaseKey(int id, long newPriority) {
+        if (newPriority >= priority[id]) {
+            return false;
+        }
+        unlink(id);
+        insert(id, newPriority);
+        return true;
+    }
+
+    @Override
+    public int peek() {
+        return bucket[moveCursorToLowest()];
+    }
+
+    @Override
+    public long peekPriority() {
+        moveCursorToLowest();
+        return cursor;
+    }
+
+    @Override
+    public int poll() {
+        int top = bucket[moveCursorToLowest()];
+        unlink(top);
+        return top;
+    }
+
+    @Override
+    public boolean remove(int id) {
+        if (!contains(id)) {
+            return false;
+        }
+        unlink(id);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < bucket.length; i++) {
+            for (int id = bucket[i]; id != FIRST_IN_BUCKET; id = next[id]) {
+                prev[id] = ABSENT;
+            }
+            bucket[i] = FIRST_IN_BUCKET;
+        }
+        size = 0;
+    }
+
+    /**
+     * It is used to push id at head of its bucket, so ids of same priority are polled last in first out.
+     *
+     * @param id
+     * @param newPriority
+     */
+    private void insert(int id, long newPriority) {
+        if (size == 0) {
+            cursor = newPriority;
+            highestPriority = newPriority;
+        } else {
+            cursor = Math.min(cursor, newPriority);
+            highestPriority = Math.max(highestPriority, newPriority);
+        }
+        if (highestPriority - cursor > bucketMask) {
+            growBuckets();
+        }
+        priority[id] = newPriority;
+        int slot = (int) (newPriority & bucketMask);
+        int head = bucket[slot];
+        next[id] = head;
+        prev[id] = FIRST_IN_BUCKET;
+        if (head != FIRST_IN_BUCKET) {
+            prev[head] = id;
+        }
+        bucket[slot] = id;
+        size += 1;
+    }
+
+    private void unlink(int id) {
+        int before = prev[id];
+        int after = next[id];
+        if (before == FIRST_IN_BUCKET) {
+            bucket[(int) (priority[id] & bucketMask)] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after != FIRST_IN_BUCKET) {
+            prev[after] = before;
+        }
+        prev[id] = ABSENT;
+        size -= 1;
+    }
+
+    /**
+     * It is used to move cursor to first non empty bucket. Only valid if queue is not empty.
+     *
+     * @return int slot of bucket holding lowest priority
+     */
+    private int moveCursorToLowest() {
+        int slot = (int) (cursor & bucketMask);
+        while (bucket[slot] == FIRST_IN_BUCKET) {
+            cursor += 1;
+            slot = (slot + 1) & bucketMask;
+        }
+        return slot;
+    }
+
+    /**
+     * It is used to double the buckets till queued priorities fit and move every id to its new bucket.
+     */
+    private void growBuckets() {
+        long spread = highestPriority - cursor;
+        int bucketCount = bucket.length;
+        while (spread >= bucketCount) {
+            if (bucketCount == MAX_BUCKET_COUNT) {
+                throw new IllegalArgumentException("Priorities spread over more than " + MAX_BUCKET_COUNT
+                        + " values, use --open-list=heap");
+            }
+            bucketCount <<= 1;
+        }
+        int[] oldBucket = bucket;
+        bucket = new int[bucketCount];
+        bucketMask = bucketCount - 1;
+        Arrays.fill(bucket, FIRST_IN_BUCKET);
+        int queued = size;
+        size = 0;
+        for (int i = 0; i < oldBucket.length && size < queued; i++) {
+            int id = oldBucket[i];
+            while (id != FIRST_IN_BUCKET) {
+                int following = next[id];
+                int slot = (int) (priority[id] & bucketMask);
+                next[id] = bucket[slot];
+                prev[id] = FIRST_IN_BUCKET;
+                if (bucket[slot] != FIRST_IN_BUCKET) {
+                    prev[bucket[slot]] = id;
+                }
+                bucket[slot] = id;
+                size += 1;
+                id = following;
+            }
+        }
+    }
+
+    /**
+     * It is used to grow the arrays so that ids less than given capacity can be stored.
+     *
+     * @param capacity
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= prev.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, prev.length + (prev.length >> 1));
+        int oldCapacity = prev.length;
+        next = Arrays.copyOf(next, newCapacity);
+        priority = Arrays.copyOf(priority, newCapacity);
+        prev = Arrays.copyOf(prev, newCapacity);
+        Arrays.fill(prev, oldCapacity, newCapacity, ABSENT);
+    }
+}
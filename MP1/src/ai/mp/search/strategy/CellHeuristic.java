@@ -0,0 +1,21 @@
+package ai.mp.search.strategy;
+
+/**
+ * It specify heuristic contract of the search strategies which estimate maze distance between two cells.
+ * Estimate never exceeds the maze distance and changes by at most 1 between neighbor cells, so A * using it
+ * finds cheapest path. It is selected on command line by --heuristic.
+ *
+ * @author rudani2
+ *
+ */
+interface CellHeuristic {
+
+    /**
+     * It is used to estimate maze distance between two cells.
+     *
+     * @param cellId
+     * @param otherCellId
+     * @return long
+     */
+    long getDistance(int cellId, int otherCellId);
+}
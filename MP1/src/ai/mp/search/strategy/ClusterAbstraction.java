@@ -0,0 +1,446 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+
+/**
+ * It is the abstract graph of maze used by hierarchical path finding (HPA *). Maze is split into square
+ * clusters of cluster size cells.
+ * <pre>
+ * Entrance        - run of open cells along border of two clusters whose facing cells are open too.
+ *                   Run narrower than 6 cells gets one transition in its middle, wider run gets one at
+ *                   each end
+ * Abstract node   - cell on either side of a transition
+ * Inter edge      - cost 1 edge between two cells of a transition
+ * Intra edge      - edge between two abstract nodes of same cluster with their distance inside cluster
+ * </pre>
+ * Abstraction is built once and reused by every query on same maze and cluster size. Query connects start
+ * and goal cell to abstract nodes of their clusters, runs A * over abstract graph and refines every
+ * abstract edge into cells by search inside one cluster. Work per query depends on cluster size and path
+ * length only. Path found can be little longer than shortest path since it passes through transitions.
+ *
+ * @author rudani2
+ *
+ */
+public class ClusterAbstraction {
+
+    private static final int MAX_SINGLE_TRANSITION_WIDTH = 6;
+    private static final int INTER_EDGE_COST = 1;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static ClusterAbstraction cachedAbstraction;
+
+    private final CompiledMaze maze;
+    private final int clusterSize;
+    private final int clusterColumnCount;
+    private final int[] neighborOffsets;
+
+    // Abstract nodes
+    private int nodeCount = 0;
+    private int[] nodeCell = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+    private final int[] nodeOfCell;
+    /**
+     * It holds abstract nodes of cluster c at index [clusterNodeStart[c], clusterNodeStart[c + 1]).
+     */
+    private int[] clusterNodeStart;
+    private int[] clusterNodes;
+
+    // Abstract edges of node v at index [edgeStart[v], edgeStart[v + 1])
+    private int[] edgeStart;
+    private int[] edgeTarget;
+    private int[] edgeCost;
+
+    // Search scratch space, reused by every query
+    private final int[] localDistance;
+    private final int[] localParent;
+    private final int[] localQueue;
+    private int[] searchStamp;
+    private int[] approachableCost;
+    private int[] parent;
+    private int stamp = 0;
+    private final IndexedMinHeap openNode = new IndexedMinHeap(MazeConstant.QUEUE_INITIAL_CAPACITY);
+    private long nodesExpanded = 0L;
+
+    private ClusterAbstraction(CompiledMaze maze, int clusterSize) {
+        this.maze = maze;
+        this.clusterSize = clusterSize;
+        this.clusterColumnCount = ((maze.getColumnCount() - 1) / clusterSize) + 1;
+        this.neighborOffsets = maze.getNeighborOffsets();
+        this.nodeOfCell = new int[maze.getCellCount()];
+        Arrays.fill(nodeOfCell, MazeConstant.NO_CELL);
+        this.localDistance = new int[clusterSize * clusterSize];
+        this.localParent = new int[clusterSize * clusterSize];
+        this.localQueue = new int[clusterSize * clusterSize];
+
+        EdgeList edges = new EdgeList();
+        addTransitions(edges);
+        groupNodesByCluster();
+        addIntraEdges(edges);
+        buildAdjacency(edges);
+        this.searchStamp = new int[nodeCount + 2];
+        this.approachableCost = new int[nodeCount + 2];
+        this.parent = new int[nodeCount + 2];
+    }
+
+    /**
+     * It is used to get the abstraction of given maze and cluster size. Abstraction built for previous
+     * query is reused when maze and cluster size are same.
+     *
+     * @param maze
+     * @param clusterSize
+     * @return ClusterAbstraction
+     */
+    static synchronized ClusterAbstraction getInstance(CompiledMaze maze, int clusterSize) {
+        if (cachedAbstraction == null || cachedAbstraction.maze != maze || cachedAbstraction.clusterSize != clusterSize) {
+            long startTime = System.nanoTime();
+            cachedAbstraction = new ClusterAbstraction(maze, clusterSize);
+            if (SearchConfiguration.isVerbose()) {
+                System.out.println("Cluster abstraction " + cachedAbstraction.nodeCount + " nodes "
+                        + cachedAbstraction.edgeTarget.length + " edges built in "
+                        + ((System.nanoTime() - startTime) / 1000000L) + " ms");
+            }
+        }
+        return cachedAbstraction;
+    }
+
+    /**
+     * It is used to find path between two open cells.
+     *
+     * @param startCell
+     * @param goalCell
+     * @return int[] cell ids from start to goal or null if goal can not be reached
+     */
+    synchronized int[] findPath(int startCell, int goalCell) {
+        stamp += 1;
+        int startNode = nodeCount;
+        int goalNode = nodeCount + 1;
+        int goalCluster = getCluster(goalCell);
+        // Goal distance to abstract nodes of its cluster, kept while abstract graph is searched
+        int[] goalLinks = getClusterDistances(goalCell, goalCluster);
+
+        openNode.clear();
+        reach(startNode, 0, startNode);
+        openNode.offer(startNode, maze.getManhattanDistance(startCell, goalCell));
+        while (!openNode.isEmpty()) {
+            int node = openNode.poll();
+            if (node == goalNode) {
+                return refine(startCell, goalCell);
+            }
+            nodesExpanded += 1;
+            int cost = approachableCost[node];
+            int cell = node == startNode ? startCell : nodeCell[node];
+            int cluster = getCluster(cell);
+            if (node == startNode) {
+                // Start links to abstract nodes of its cluster and to goal if goal is in same cluster
+                findClusterDistances(startCell, cluster);
+                for (int i = clusterNodeStart[cluster]; i < clusterNodeStart[cluster + 1]; i++) {
+                    relax(node, clusterNodes[i], cost, getLocalDistance(nodeCell[clusterNodes[i]], cluster), goalCell);
+                }
+                if (cluster == goalCluster) {
+                    relax(node, goalNode, cost, getLocalDistance(goalCell, cluster), goalCell);
+                }
+                continue;
+            }
+            for (int i = edgeStart[node]; i < edgeStart[node + 1]; i++) {
+                relax(node, edgeTarget[i], cost, edgeCost[i], goalCell);
+            }
+            if (cluster == goalCluster) {
+                relax(node, goalNode, cost, goalLinks[indexInCluster(node, cluster)], goalCell);
+            }
+        }
+        return null;
+    }
+
+    long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    private void relax(int node, int child, int cost, int edgeCost, int goalCell) {
+        if (edgeCost == UNREACHABLE) {
+            return;
+        }
+        int approachedCost = cost + edgeCost;
+        if (searchStamp[child] == stamp && approachedCost >= approachableCost[child]) {
+            return;
+        }
+        reach(child, approachedCost, node);
+        int childCell = child == nodeCount + 1 ? goalCell : nodeCell[child];
+        openNode.update(child, (long) approachedCost + maze.getManhattanDistance(childCell, goalCell));
+    }
+
+    private void reach(int node, int cost, int parentNode) {
+        searchStamp[node] = stamp;
+        approachableCost[node] = cost;
+        parent[node] = parentNode;
+    }
+
+    /**
+     * It is used to turn abstract path ending at goal node into cell path. Consecutive abstract nodes
+     * are either two cells of transition or two cells of same cluster joined by search inside it.
+     *
+     * @param startCell
+     * @param goalCell
+     * @return int[] cell path
+     */
+    private int[] refine(int startCell, int goalCell) {
+        int length = 1;
+        for (int node = nodeCount + 1; node != nodeCount; node = parent[node]) {
+            length += 1;
+        }
+        int[] abstractPath = new int[length];
+        int index = length - 1;
+        for (int node = nodeCount + 1; node != nodeCount; node = parent[node]) {
+            abstractPath[index--] = node == nodeCount + 1 ? goalCell : nodeCell[node];
+        }
+        abstractPath[0] = startCell;
+
+        int[] cellPath = new int[approachableCost[nodeCount + 1] + 1];
+        int pathLength = 0;
+        cellPath[pathLength++] = startCell;
+        for (int i = 1; i < abstractPath.length; i++) {
+            int fromCell = abstractPath[i - 1];
+            int toCell = abstractPath[i];
+            int cluster = getCluster(fromCell);
+            if (fromCell == toCell) {
+                continue;
+            }
+            if (cluster != getCluster(toCell)) {
+                cellPath[pathLength++] = toCell;
+                continue;
+            }
+            findClusterDistances(fromCell, cluster);
+            int segmentLength = getLocalDistance(toCell, cluster);
+            // Walk parent links back from target cell inside cluster
+            int cell = toCell;
+            for (int step = segmentLength; step > 0; step--) {
+                cellPath[pathLength + step - 1] = cell;
+                cell = localParent[getLocalIndex(cell, cluster)];
+            }
+            pathLength += segmentLength;
+        }
+        return cellPath;
+    }
+
+    /**
+     * It is used to find entrances along every border of two clusters and add their transitions.
+     *
+     * @param edges
+     */
+    private void addTransitions(EdgeList edges) {
+        int rowCount = maze.getRowCount();
+        int columnCount = maze.getColumnCount();
+        // Border between cluster columns, run goes down the rows
+        for (int column = clusterSize; column < columnCount; column += clusterSize) {
+            for (int top = 0; top < rowCount; top += clusterSize) {
+                int bottom = Math.min(top + clusterSize, rowCount);
+                addEntrances(edges, maze.getCellId(top, column - 1), maze.getCellId(top, column)
+                        , maze.getWidth(), bottom - top);
+            }
+        }
+        // Border between cluster rows, run goes along the columns
+        for (int row = clusterSize; row < rowCount; row += clusterSize) {
+            for (int left = 0; left < columnCount; left += clusterSize) {
+                int right = Math.min(left + clusterSize, columnCount);
+                addEntrances(edges, maze.getCellId(row - 1, left), maze.getCellId(row, left), 1, right - left);
+            }
+        }
+    }
+
+    /**
+     * It is used to split border of given length into entrances and add transitions of each.
+     *
+     * @param edges
+     * @param firstCell first cell of border in one cluster
+     * @param facingCell first cell of border in other cluster
+     * @param step cell id distance between consecutive cells of border
+     * @param length
+     */
+    private void addEntrances(EdgeList edges, int firstCell, int facingCell, int step, int length) {
+        int runStart = MazeConstant.NO_CELL;
+        for (int i = 0; i <= length; i++) {
+            boolean isOpen = i < length && !maze.isWall(firstCell + (i * step)) && !maze.isWall(facingCell + (i * step));
+            if (isOpen && runStart == MazeConstant.NO_CELL) {
+                runStart = i;
+            } else if (!isOpen && runStart != MazeConstant.NO_CELL) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 < MAX_SINGLE_TRANSITION_WIDTH) {
+                    int middle = (runStart + runEnd) / 2;
+                    addTransition(edges, firstCell + (middle * step), facingCell + (middle * step));
+                } else {
+                    addTransition(edges, firstCell + (runStart * step), facingCell + (runStart * step));
+                    addTransition(edges, firstCell + (runEnd * step), facingCell + (runEnd * step));
+                }
+                runStart = MazeConstant.NO_CELL;
+            }
+        }
+    }
+
+    private void addTransition(EdgeList edges, int cell, int facingCell) {
+        int node = addNode(cell);
+        int facingNode = addNode(facingCell);
+        edges.add(node, facingNode, INTER_EDGE_COST);
+        edges.add(facingNode, node, INTER_EDGE_COST);
+    }
+
+    private int addNode(int cell) {
+        if (nodeOfCell[cell] == MazeConstant.NO_CELL) {
+            if (nodeCount == nodeCell.length) {
+                nodeCell = Arrays.copyOf(nodeCell, nodeCount * 2);
+            }
+            nodeCell[nodeCount] = cell;
+            nodeOfCell[cell] = nodeCount;
+            nodeCount += 1;
+        }
+        return nodeOfCell[cell];
+    }
+
+    private void groupNodesByCluster() {
+        int clusterCount = (((maze.getRowCount() - 1) / clusterSize) + 1) * clusterColumnCount;
+        clusterNodeStart = new int[clusterCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            clusterNodeStart[getCluster(nodeCell[node]) + 1] += 1;
+        }
+        for (int cluster = 0; cluster < clusterCount; cluster++) {
+            clusterNodeStart[cluster + 1] += clusterNodeStart[cluster];
+        }
+        clusterNodes = new int[nodeCount];
+        int[] filled = Arrays.copyOf(clusterNodeStart, clusterCount);
+        for (int node = 0; node < nodeCount; node++) {
+            clusterNodes[filled[getCluster(nodeCell[node])]++] = node;
+        }
+    }
+
+    /**
+     * It is used to join every pair of abstract nodes of same cluster which can reach each other inside it.
+     *
+     * @param edges
+     */
+    private void addIntraEdges(EdgeList edges) {
+        for (int cluster = 0; cluster + 1 < clusterNodeStart.length; cluster++) {
+            for (int i = clusterNodeStart[cluster]; i < clusterNodeStart[cluster + 1]; i++) {
+                int node = clusterNodes[i];
+                findClusterDistances(nodeCell[node], cluster);
+                for (int j = clusterNodeStart[cluster]; j < clusterNodeStart[cluster + 1]; j++) {
+                    int distance = getLocalDistance(nodeCell[clusterNodes[j]], cluster);
+                    if (j != i && distance != UNREACHABLE) {
+                        edges.add(node, clusterNodes[j], distance);
+                    }
+                }
+            }
+        }
+    }
+
+    private void buildAdjacency(EdgeList edges) {
+        edgeStart = new int[nodeCount + 1];
+        for (int i = 0; i < edges.size; i++) {
+            edgeStart[edges.source[i] + 1] += 1;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            edgeStart[node + 1] += edgeStart[node];
+        }
+        edgeTarget = new int[edges.size];
+        edgeCost = new int[edges.size];
+        int[] filled = Arrays.copyOf(edgeStart, nodeCount);
+        for (int i = 0; i < edges.size; i++) {
+            int slot = filled[edges.source[i]]++;
+            edgeTarget[slot] = edges.target[i];
+            edgeCost[slot] = edges.cost[i];
+        }
+    }
+
+    /**
+     * It is used to get distance from given cell to every abstract node of its cluster.
+     *
+     * @param cell
+     * @param cluster
+     * @return int[] distances in order of cluster nodes
+     */
+    private int[] getClusterDistances(int cell, int cluster) {
+        findClusterDistances(cell, cluster);
+        int[] distances = new int[clusterNodeStart[cluster + 1] - clusterNodeStart[cluster]];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = getLocalDistance(nodeCell[clusterNodes[clusterNodeStart[cluster] + i]], cluster);
+        }
+        return distances;
+    }
+
+    private int indexInCluster(int node, int cluster) {
+        for (int i = clusterNodeStart[cluster]; i < clusterNodeStart[cluster + 1]; i++) {
+            if (clusterNodes[i] == node) {
+                return i - clusterNodeStart[cluster];
+            }
+        }
+        throw new IllegalArgumentException("Node " + node + " is not in cluster " + cluster);
+    }
+
+    /**
+     * It is used to run BFS from given cell which does not leave its cluster. Distance and parent of
+     * every cell of cluster are left in local arrays.
+     *
+     * @param sourceCell
+     * @param cluster
+     */
+    private void findClusterDistances(int sourceCell, int cluster) {
+        int top = (cluster / clusterColumnCount) * clusterSize;
+        int left = (cluster % clusterColumnCount) * clusterSize;
+        Arrays.fill(localDistance, UNREACHABLE);
+        int head = 0;
+        int tail = 0;
+        localDistance[getLocalIndex(sourceCell, cluster)] = 0;
+        localQueue[tail++] = sourceCell;
+        while (head < tail) {
+            int cell = localQueue[head++];
+            int distance = localDistance[getLocalIndex(cell, cluster)];
+            for (int offset : neighborOffsets) {
+                int child = cell + offset;
+                int row = maze.getRow(child) - top;
+                int column = maze.getColumn(child) - left;
+                if (maze.isWall(child) || row < 0 || row >= clusterSize || column < 0 || column >= clusterSize) {
+                    continue;
+                }
+                int local = (row * clusterSize) + column;
+                if (localDistance[local] == UNREACHABLE) {
+                    localDistance[local] = distance + 1;
+                    localParent[local] = cell;
+                    localQueue[tail++] = child;
+                }
+            }
+        }
+    }
+
+    private int getLocalDistance(int cell, int cluster) {
+        return localDistance[getLocalIndex(cell, cluster)];
+    }
+
+    private int getLocalIndex(int cell, int cluster) {
+        int row = maze.getRow(cell) - ((cluster / clusterColumnCount) * clusterSize);
+        int column = maze.getColumn(cell) - ((cluster % clusterColumnCount) * clusterSize);
+        return (row * clusterSize) + column;
+    }
+
+    private int getCluster(int cell) {
+        return ((maze.getRow(cell) / clusterSize) * clusterColumnCount) + (maze.getColumn(cell) / clusterSize);
+    }
+
+    /**
+     * It holds the abstract edges while abstraction is built.
+     */
+    private static class EdgeList {
+
+        private int[] source = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+        private int[] target = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+        private int[] cost = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+        private int size = 0;
+
+        private void add(int fromNode, int toNode, int edgeCost) {
+            if (size == source.length) {
+                source = Arrays.copyOf(source, size * 2);
+                target = Arrays.copyOf(target, size * 2);
+                cost = Arrays.copyOf(cost, size * 2);
+            }
+            source[size] = fromNode;
+            target[size] = toNode;
+            cost[size] = edgeCost;
+            size += 1;
+        }
+    }
+}
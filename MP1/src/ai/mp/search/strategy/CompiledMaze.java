@@ -0,0 +1,293 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+
+/**
+ * It is the compiled representation of maze used by search strategies. The maze is kept as
+ * single row-major byte array surrounded by one cell of sentinel Wall on every side, so neighbor of
+ * any open cell is always inside the array and no boundary check is needed.
+ * <pre>
+ * cell id      - index into byte array i.e. (row + 1) * width + (column + 1)
+ * cell marker  - same marker as preprocessed maze i.e. -1 Wall, 0 Start, 1 Goal, 2 Ghost, 3 Path
+ * neighbor     - cell id + neighbor offset. Offsets are ordered as UP, DOWN, LEFT, RIGHT so that
+ *                offset of direction d is at index (d - 1)
+ * </pre>
+ *
+ * @author rudani2
+ *
+ */
+public class CompiledMaze {
+
+    private final int rowCount;
+    private final int columnCount;
+    /**
+     * It represents the row width including sentinel Wall on both side.
+     */
+    private final int width;
+    private final byte[] cells;
+    private final int[] neighborOffsets;
+
+    private int startCell = MazeConstant.NO_CELL;
+    private int ghostCell = MazeConstant.NO_CELL;
+    private int[] goalCells = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+    private int goalCount = 0;
+
+    CompiledMaze(int rowCount, int columnCount) {
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.width = columnCount + 2;
+        this.cells = new byte[(rowCount + 2) * width];
+        // Every cell is Wall till it is populated from maze file
+        Arrays.fill(this.cells, (byte) MazeConstant.WALL_MARKER);
+        this.neighborOffsets = new int[] { -width, width, -1, 1 };
+    }
+
+    /**
+     * It is used to populate the cell at given row and column from maze file character.
+     * It interprets
+     * <pre>
+     * % as Wall
+     * P as start position
+     * . as Goal state
+     * G as Ghost
+     * space and g as Path
+     * </pre>
+     *
+     * @param row
+     * @param column
+     * @param ch
+     */
+    void setCell(int row, int column, char ch) {
+        int cellId = getCellId(row, column);
+        switch (ch) {
+            case '%' :
+                cells[cellId] = (byte) MazeConstant.WALL_MARKER;
+                break;
+            case 'P' :
+                cells[cellId] = (byte) MazeConstant.START_POSITION_MARKER;
+                startCell = cellId;
+                break;
+            case '.' :
+                cells[cellId] = (byte) MazeConstant.GOAL_POSITION_MARKER;
+                addGoalCell(cellId);
+                break;
+            case 'G' :
+                cells[cellId] = (byte) MazeConstant.GHOST_POSITION_MARKER;
+                ghostCell = cellId;
+                break;
+            case ' ' :
+            case 'g' :
+                cells[cellId] = (byte) MazeConstant.PATH_MARKER;
+                break;
+        }
+    }
+
+    private void addGoalCell(int cellId) {
+        if (goalCount == goalCells.length) {
+            goalCells = Arrays.copyOf(goalCells, goalCount * 2);
+        }
+        goalCells[goalCount++] = cellId;
+    }
+
+    public int getCellId(int row, int column) {
+        return ((row + 1) * width) + (column + 1);
+    }
+
+    public int getRow(int cellId) {
+        return (cellId / width) - 1;
+    }
+
+    public int getColumn(int cellId) {
+        return (cellId % width) - 1;
+    }
+
+    public byte getMarker(int cellId) {
+        return cells[cellId];
+    }
+
+    public boolean isWall(int cellId) {
+        return cells[cellId] == MazeConstant.WALL_MARKER;
+    }
+
+    public boolean isGoal(int cellId) {
+        return cells[cellId] == MazeConstant.GOAL_POSITION_MARKER;
+    }
+
+    /**
+     * It is used to block the cell as Wall or to open it as Path, as when door closes or opens at run time.
+     * Start, goal and ghost cells can not be changed. Structures built from maze before the change, such as
+     * landmarks or cluster abstraction, do not see it.
+     *
+     * @param cellId
+     * @param isBlocked true to block the cell, false to open it
+     */
+    public void setBlocked(int cellId, boolean isBlocked) {
+        int row = getRow(cellId);
+        int column = getColumn(cellId);
+        if (row < 0 || row >= rowCount || column < 0 || column >= columnCount) {
+            throw new IllegalArgumentException("Cell " + cellId + " is outside the maze");
+        }
+        byte marker = cells[cellId];
+        if (marker == MazeConstant.START_POSITION_MARKER || marker == MazeConstant.GOAL_POSITION_MARKER
+                || marker == MazeConstant.GHOST_POSITION_MARKER) {
+            throw new IllegalArgumentException("Start, goal and ghost cells can not be blocked, row " + row
+                    + " column " + column);
+        }
+        cells[cellId] = (byte) (isBlocked ? MazeConstant.WALL_MARKER : MazeConstant.PATH_MARKER);
+    }
+
+    /**
+     * It is used to get the neighbor offsets ordered as UP, DOWN, LEFT, RIGHT.
+     *
+     * @return int[]
+     */
+    public int[] getNeighborOffsets() {
+        return neighborOffsets;
+    }
+
+    /**
+     * It is used to calculate Manhattan distance between two cells.
+     * Manhattan distance formula is |x1 - x2| + |y1 - y2|
+     *
+     * @param cellId
+     * @param otherCellId
+     * @return int
+     */
+    public int getManhattanDistance(int cellId, int otherCellId) {
+        return Math.abs((cellId / width) - (otherCellId / width))
+                + Math.abs((cellId % width) - (otherCellId % width));
+    }
+
+    /**
+     * It is used to create parent array for search where every cell is marked as not discovered.
+     *
+     * @return int[]
+     */
+    public int[] newParentArray() {
+        int[] parent = new int[cells.length];
+        Arrays.fill(parent, MazeConstant.NO_CELL);
+        return parent;
+    }
+
+    /**
+     * It is used to create {@link Position} object for given cell id.
+     *
+     * @param cellId
+     * @return Position
+     */
+    public Position toPosition(int cellId) {
+        return new Position(getRow(cellId), getColumn(cellId), null, MazeConstant.DEFAULT_COST
+                , MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
+    }
+
+    /**
+     * It is used to build the int matrix representation of maze used by strategies
+     * which are still working on co-ordinates.
+     *
+     * @return int[][]
+     */
+    public int[][] toIntMatrix() {
+        int[][] matrix = new int[rowCount][columnCount];
+        for (int row = 0; row < rowCount; row++) {
+            int cellId = getCellId(row, 0);
+            for (int column = 0; column < columnCount; column++) {
+                matrix[row][column] = cells[cellId++];
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * It is used to build the solution maze. Every cell in given path except start position
+     * is drawn as '.'
+     *
+     * @param path cell ids from start to goal or null
+     * @return char[][]
+     */
+    public char[][] toSolutionMatrix(int[] path) {
+        char[][] matrix = new char[rowCount][columnCount];
+        for (int row = 0; row < rowCount; row++) {
+            int cellId = getCellId(row, 0);
+            for (int column = 0; column < columnCount; column++) {
+                matrix[row][column] = toMazeCharacter(cells[cellId++]);
+            }
+        }
+        if (path != null) {
+            for (int i = 1; i < path.length; i++) {
+                int row = getRow(path[i]);
+                int column = getColumn(path[i]);
+                if (matrix[row][column] < 48) {
+                    matrix[row][column] = '.';
+                }
+            }
+        }
+        return matrix;
+    }
+
+    private char toMazeCharacter(byte marker) {
+        switch (marker) {
+            case MazeConstant.WALL_MARKER :
+                return '%';
+            case MazeConstant.START_POSITION_MARKER :
+                return 'P';
+            case MazeConstant.GOAL_POSITION_MARKER :
+                return '.';
+            case MazeConstant.GHOST_POSITION_MARKER :
+                return 'G';
+            default :
+                return ' ';
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * It is used to get the total number of cells including sentinel Wall.
+     *
+     * @return int
+     */
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    public int getStartCell() {
+        return startCell;
+    }
+
+    public int getGhostCell() {
+        return ghostCell;
+    }
+
+    /**
+     * It is used to get the goal cell for single goal search. Same as {@link Preprocessing#getGoalPosition()}
+     * it is the last goal found in maze file.
+     *
+     * @return int
+     */
+    public int getGoalCell() {
+        return goalCount == 0 ? MazeConstant.NO_CELL : goalCells[goalCount - 1];
+    }
+
+    /**
+     * It is used to get all the goal cells in order of appearance in maze file.
+     *
+     * @return int[]
+     */
+    public int[] getGoalCells() {
+        return Arrays.copyOf(goalCells, goalCount);
+    }
+
+    public int getGoalCount() {
+        return goalCount;
+    }
+}
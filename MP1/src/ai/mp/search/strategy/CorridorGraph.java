@@ -0,0 +1,320 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+
+/**
+ * It is the junction graph of {@link CompiledMaze} used by PATH finding when --contract-corridors is set.
+ * It is built in two passes
+ * <pre>
+ * Dead end filling     - open cell with at most one open neighbor is filled, which may turn its neighbor
+ *                        into dead end too. Start, goal and ghost cells are never filled. Maze is not
+ *                        changed, filled cells are only left out of graph
+ * Corridor contraction - every cell left which is start, goal or ghost, or which has other than two open
+ *                        neighbors, is junction node. Cells between two junctions are walked once and
+ *                        become one edge whose cost is number of steps along the corridor
+ * </pre>
+ * Edges are kept in compressed rows, edges of node n are at [edgeStart[n], edgeStart[n + 1]). Corridor
+ * cells of every edge are kept in walking order, so path over nodes is expanded back to cell path.
+ * Only cheapest of parallel edges between same two nodes is kept, and corridor which comes back to its
+ * own junction is left out, as neither can be on cheapest path.
+ *
+ * @author rudani2
+ *
+ */
+class CorridorGraph {
+
+    private static CorridorGraph cachedGraph;
+
+    private final CompiledMaze maze;
+    private final boolean[] isFilled;
+    private final int[] cellNode;
+    private int[] nodeCell = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+    private int nodeCount = 0;
+    private int[] edgeStart;
+    private int[] edgeTarget = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+    private int[] edgeCost = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+    private int[] corridorStart = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+    private int edgeCount = 0;
+    private int[] corridorCell = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+    private int corridorCellCount = 0;
+    private int openCellCount = 0;
+    private int filledCellCount = 0;
+
+    private CorridorGraph(CompiledMaze maze) {
+        this.maze = maze;
+        this.isFilled = new boolean[maze.getCellCount()];
+        this.cellNode = new int[maze.getCellCount()];
+        Arrays.fill(cellNode, MazeConstant.NO_CELL);
+        fillDeadEnds();
+        findNodes();
+        contractCorridors();
+    }
+
+    /**
+     * It is used to get the junction graph of given maze. Graph is built once and reused till other maze
+     * is asked.
+     *
+     * @param maze
+     * @return CorridorGraph
+     */
+    static synchronized CorridorGraph getInstance(CompiledMaze maze) {
+        if (cachedGraph == null || cachedGraph.maze != maze) {
+            long startTime = System.nanoTime();
+            cachedGraph = new CorridorGraph(maze);
+            if (SearchConfiguration.isVerbose()) {
+                System.out.println("Corridor graph built in " + ((System.nanoTime() - startTime) / 1000000L)
+                        + " ms");
+                System.out.println("Open cells " + cachedGraph.openCellCount + ", dead end cells filled "
+                        + cachedGraph.filledCellCount + ", junctions " + cachedGraph.nodeCount + ", edges "
+                        + cachedGraph.edgeCount);
+            }
+        }
+        return cachedGraph;
+    }
+
+    private boolean isKept(int cell) {
+        byte marker = maze.getMarker(cell);
+        return marker == MazeConstant.START_POSITION_MARKER || marker == MazeConstant.GOAL_POSITION_MARKER
+                || marker == MazeConstant.GHOST_POSITION_MARKER;
+    }
+
+    private boolean isOpen(int cell) {
+        return !maze.isWall(cell) && !isFilled[cell];
+    }
+
+    private int getDegree(int cell) {
+        int degree = 0;
+        for (int offset : maze.getNeighborOffsets()) {
+            if (isOpen(cell + offset)) {
+                degree += 1;
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * It is used to fill dead ends from their closed end inwards. Cell is marked filled when it is queued,
+     * and its open neighbors lose one degree when it is taken out of queue.
+     */
+    private void fillDeadEnds() {
+        int[] degree = new int[maze.getCellCount()];
+        int[] queue = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+        int tail = 0;
+        for (int cell = 0; cell < maze.getCellCount(); cell++) {
+            if (!maze.isWall(cell)) {
+                openCellCount += 1;
+                degree[cell] = getDegree(cell);
+            }
+        }
+        for (int cell = 0; cell < maze.getCellCount(); cell++) {
+            if (!maze.isWall(cell) && degree[cell] <= 1 && !isKept(cell)) {
+                if (tail == queue.length) {
+                    queue = Arrays.copyOf(queue, tail * 2);
+                }
+                isFilled[cell] = true;
+                queue[tail++] = cell;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            for (int offset : maze.getNeighborOffsets()) {
+                int neighbor = queue[head] + offset;
+                if (!isOpen(neighbor)) {
+                    continue;
+                }
+                degree[neighbor] -= 1;
+                if (degree[neighbor] <= 1 && !isKept(neighbor)) {
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail * 2);
+                    }
+                    isFilled[neighbor] = true;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        filledCellCount = tail;
+    }
+
+    private void findNodes() {
+        for (int cell = 0; cell < maze.getCellCount(); cell++) {
+            if (isOpen(cell) && (isKept(cell) || getDegree(cell) != 2)) {
+                if (nodeCount == nodeCell.length) {
+                    nodeCell = Arrays.copyOf(nodeCell, nodeCount * 2);
+                }
+                cellNode[cell] = nodeCount;
+                nodeCell[nodeCount++] = cell;
+            }
+        }
+    }
+
+    /**
+     * It is used to walk every corridor leaving every node and to add it as edge. Corridor cells of all
+     * directions of node are written one after other, and then moved over dropped ones.
+     */
+    private void contractCorridors() {
+        int[] neighborOffsets = maze.getNeighborOffsets();
+        int[] target = new int[neighborOffsets.length];
+        int[] cost = new int[neighborOffsets.length];
+        int[] start = new int[neighborOffsets.length];
+        edgeStart = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            edgeStart[node] = edgeCount;
+            int nodeStart = corridorCellCount;
+            for (int direction = 0; direction < neighborOffsets.length; direction++) {
+                target[direction] = MazeConstant.NO_CELL;
+                start[direction] = corridorCellCount;
+                int previous = nodeCell[node];
+                int current = previous + neighborOffsets[direction];
+                if (!isOpen(current)) {
+                    continue;
+                }
+                cost[direction] = 1;
+                while (cellNode[current] == MazeConstant.NO_CELL) {
+                    addCorridorCell(current);
+                    int next = getNextCell(previous, current);
+                    previous = current;
+                    current = next;
+                    cost[direction] += 1;
+                }
+                target[direction] = cellNode[current];
+            }
+            corridorCellCount = nodeStart;
+            for (int direction = 0; direction < neighborOffsets.length; direction++) {
+                if (target[direction] != MazeConstant.NO_CELL && target[direction] != node
+                        && !isDominated(direction, target, cost)) {
+                    int length = cost[direction] - 1;
+                    System.arraycopy(corridorCell, start[direction], corridorCell, corridorCellCount, length);
+                    addEdge(target[direction], cost[direction], corridorCellCount);
+                    corridorCellCount += length;
+                }
+            }
+        }
+        edgeStart[nodeCount] = edgeCount;
+    }
+
+    /**
+     * It is used to check whether other direction reaches same node with lower cost, or with same cost
+     * and lower direction.
+     */
+    private static boolean isDominated(int direction, int[] target, int[] cost) {
+        for (int other = 0; other < target.length; other++) {
+            if (other != direction && target[other] == target[direction]
+                    && (cost[other] < cost[direction] || (cost[other] == cost[direction] && other < direction))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * It is used to get the open neighbor of corridor cell other than the one it is entered from.
+     */
+    private int getNextCell(int previous, int cell) {
+        for (int offset : maze.getNeighborOffsets()) {
+            int neighbor = cell + offset;
+            if (neighbor != previous && isOpen(neighbor)) {
+                return neighbor;
+            }
+        }
+        return MazeConstant.NO_CELL;
+    }
+
+    private void addCorridorCell(int cell) {
+        if (corridorCellCount == corridorCell.length) {
+            corridorCell = Arrays.copyOf(corridorCell, corridorCellCount * 2);
+        }
+        corridorCell[corridorCellCount++] = cell;
+    }
+
+    private void addEdge(int target, int cost, int start) {
+        if (edgeCount == edgeTarget.length) {
+            edgeTarget = Arrays.copyOf(edgeTarget, edgeCount * 2);
+            edgeCost = Arrays.copyOf(edgeCost, edgeCount * 2);
+            corridorStart = Arrays.copyOf(corridorStart, edgeCount * 2);
+        }
+        edgeTarget[edgeCount] = target;
+        edgeCost[edgeCount] = cost;
+        corridorStart[edgeCount++] = start;
+    }
+
+    /**
+     * It is used to get the nodes reached by one edge from given node.
+     *
+     * @param node
+     * @param successors
+     * @param costs
+     * @return int number of successors
+     */
+    int getSuccessors(int node, int[] successors, int[] costs) {
+        int count = 0;
+        for (int edge = edgeStart[node]; edge < edgeStart[node + 1]; edge++) {
+            successors[count] = edgeTarget[edge];
+            costs[count++] = edgeCost[edge];
+        }
+        return count;
+    }
+
+    /**
+     * It is used to expand path over nodes into path over cells by putting corridor cells of every edge
+     * between its two nodes.
+     *
+     * @param nodePath
+     * @return int[] cell ids from first to last node
+     */
+    int[] toCellPath(int[] nodePath) {
+        int length = nodePath.length;
+        for (int i = 1; i < nodePath.length; i++) {
+            length += edgeCost[findEdge(nodePath[i - 1], nodePath[i])] - 1;
+        }
+        int[] cellPath = new int[length];
+        int position = 0;
+        for (int i = 0; i < nodePath.length; i++) {
+            if (i > 0) {
+                int edge = findEdge(nodePath[i - 1], nodePath[i]);
+                System.arraycopy(corridorCell, corridorStart[edge], cellPath, position, edgeCost[edge] - 1);
+                position += edgeCost[edge] - 1;
+            }
+            cellPath[position++] = nodeCell[nodePath[i]];
+        }
+        return cellPath;
+    }
+
+    private int findEdge(int node, int target) {
+        for (int edge = edgeStart[node]; edge < edgeStart[node + 1]; edge++) {
+            if (edgeTarget[edge] == target) {
+                return edge;
+            }
+        }
+        throw new IllegalArgumentException("No edge from junction " + node + " to junction " + target);
+    }
+
+    /**
+     * It is used to get the node of given cell.
+     *
+     * @param cell
+     * @return int node or {@link MazeConstant#NO_CELL} if cell is not junction
+     */
+    int getNode(int cell) {
+        return cellNode[cell];
+    }
+
+    int getCell(int node) {
+        return nodeCell[node];
+    }
+
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * It is used to get the largest number of edges of any node, one for every neighbor offset.
+     *
+     * @return int
+     */
+    int getMaxDegree() {
+        return maze.getNeighborOffsets().length;
+    }
+
+    CompiledMaze getMaze() {
+        return maze;
+    }
+}
@@ -0,0 +1,71 @@
+package ai.mp.search.strategy;
+
+/**
+ * It is the single goal PATH finding problem on {@link CorridorGraph}. State is junction node and every
+ * move walks one corridor, costing number of its steps. Corridor cells are not states, so strategies
+ * expand only junctions and path is expanded back to cells by {@link #toCellPath(int[])}.
+ * It uses given {@link CellHeuristic} between junction cell and goal cell, which stays admissible and
+ * consistent as corridor costs at least the maze distance between its ends.
+ *
+ * @author rudani2
+ *
+ */
+class CorridorSearchProblem implements SearchProblem {
+
+    private final CorridorGraph graph;
+    private final CompiledMaze maze;
+    private final int goalCell;
+    private final CellHeuristic heuristic;
+
+    CorridorSearchProblem(CorridorGraph graph, CellHeuristic heuristic) {
+        this.graph = graph;
+        this.maze = graph.getMaze();
+        this.goalCell = maze.getGoalCell();
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public int getStartState() {
+        return graph.getNode(maze.getStartCell());
+    }
+
+    @Override
+    public boolean isGoal(int state) {
+        return maze.isGoal(graph.getCell(state));
+    }
+
+    @Override
+    public int getSuccessors(int state, int[] successors, int[] costs) {
+        return graph.getSuccessors(state, successors, costs);
+    }
+
+    @Override
+    public int getMaxSuccessorCount() {
+        return graph.getMaxDegree();
+    }
+
+    @Override
+    public long getHeuristic(int state) {
+        return heuristic.getDistance(graph.getCell(state), goalCell);
+    }
+
+    @Override
+    public int getCell(int state) {
+        return graph.getCell(state);
+    }
+
+    @Override
+    public int getStateCount() {
+        return graph.getNodeCount();
+    }
+
+    @Override
+    public int[] getGoalOrder(int[] cellPath) {
+        return null;
+    }
+
+    @Override
+    public int[] toCellPath(int[] statePath) {
+        return graph.toCellPath(statePath);
+    }
+}
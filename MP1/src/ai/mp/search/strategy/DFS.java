@@ -1,6 +1,7 @@
 package ai.mp.search.strategy;
 
-import java.util.Stack;
+import java.util.Arrays;
+import java.util.BitSet;
 
 /**
  * It is used to implement Depth-First-Search strategy.
@@ -13,77 +14,67 @@ import java.util.Stack;
 public class DFS extends SearchOperation {
 
     private static boolean isGoalReached = false;
+    /**
+     * Order in which successor are pushed i.e. UP, LEFT, DOWN, RIGHT
+     */
+    private static final int[] SUCCESSOR_ORDER = { 0, 2, 1, 3 };
 
-    private final int [][] inputMaze;
-    private final char[][] solutionMaze;
+    private final CompiledMaze maze;
+    private char[][] solutionMaze;
+    private int[] solutionPath;
     private long nodesExpanded = 0L;
     private long stepCost = 0L;
     private long solutionCost = 0L;
 
-    DFS(int [][] inputMaze, char[][] solutionMaze) {
-        this.inputMaze = inputMaze;
-        this.solutionMaze = solutionMaze;
+    DFS(CompiledMaze maze) {
+        this.maze = maze;
     }
 
     @Override
     public void findPath() {
-        Stack<Position> successor = new Stack<Position>();
-        // Initialize the frontier queue with start position
-        successor.push(Preprocessing.getStartPosition());
-        // Recursively call find path from start position
-        findPathUsingDFS(successor);
+        int[] successor = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+        // It holds the parent of every pushed cell. Latest push wins since it is popped first
+        int[] parent = maze.newParentArray();
+        // Initialize the frontier stack with start position
+        successor[0] = maze.getStartCell();
+        parent[maze.getStartCell()] = maze.getStartCell();
+        findPathUsingDFS(successor, parent);
     }
 
-    private void findPathUsingDFS(Stack<Position> successor) {
-        Position childNode = null;
-        while (!successor.isEmpty()) {
-            childNode = successor.pop();
-            if (inputMaze[childNode.getX()][childNode.getY()] == MazeConstant.GOAL_POSITION_MARKER) {
+    private void findPathUsingDFS(int[] successor, int[] parent) {
+        int top = 1;
+        int childNode = MazeConstant.NO_CELL;
+        int[] neighborOffsets = maze.getNeighborOffsets();
+        BitSet visited = new BitSet(maze.getCellCount());
+        while (top > 0) {
+            childNode = successor[--top];
+            if (visited.get(childNode)) {
+                continue;
+            }
+            if (maze.isGoal(childNode)) {
                 isGoalReached = true;
                 break;
-            } else {
-                // Mark the node as visited
-                inputMaze[childNode.getX()][childNode.getY()] = MazeConstant.VISITED;
-                // Increment the node expanded count
-                nodesExpanded += 1;
-                // Get the successor node
-                getSuccessorNode(childNode, successor);
+            }
+            // Mark the node as visited
+            visited.set(childNode);
+            // Increment the node expanded count
+            nodesExpanded += 1;
+            // Get the successor node. It excludes if it is wall or already visited node
+            if (top + neighborOffsets.length > successor.length) {
+                successor = Arrays.copyOf(successor, successor.length * 2);
+            }
+            for (int direction : SUCCESSOR_ORDER) {
+                int child = childNode + neighborOffsets[direction];
+                if (!maze.isWall(child) && !visited.get(child)) {
+                    parent[child] = childNode;
+                    successor[top++] = child;
+                }
             }
         }
         // Check if solution exist
         if (isGoalReached) {
-            this.stepCost = drawSolutionPath(this.getSolutionMaze(), childNode).getStepCost();
-        }
-    }
-
-    /**
-     * It is used to find successor for given node. 
-     * It excludes if it is wall or already visited node
-     * 
-     * @param node
-     * @return Collection
-     */
-    private void getSuccessorNode(Position node, Stack<Position> successor) {
-        Position child = null;
-        // Get the upper node
-        child = new Position((node.getX()-1), node.getY(), node, MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-        if (isChildValid(inputMaze, child)) {
-            successor.push(child);
-        }
-        // Get the left node
-        child = new Position(node.getX(), (node.getY()-1), node, MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-        if (isChildValid(inputMaze, child)) {
-            successor.push(child);
-        }
-        // Get the lower node
-        child = new Position((node.getX()+1), node.getY(), node, MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-        if (isChildValid(inputMaze, child)) {
-            successor.push(child);
-        }
-        // Get the right node
-        child = new Position(node.getX(), (node.getY()+1), node, MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-        if (isChildValid(inputMaze, child)) {
-            successor.push(child);
+            this.solutionPath = buildSolutionPath(parent, childNode);
+            this.stepCost = solutionPath.length - 1;
         }
     }
 
@@ -94,6 +85,9 @@ public class DFS extends SearchOperation {
 
     @Override
     public char[][] getSolutionMaze() {
+        if (solutionMaze == null) {
+            solutionMaze = maze.toSolutionMatrix(solutionPath);
+        }
         return solutionMaze;
     }
 
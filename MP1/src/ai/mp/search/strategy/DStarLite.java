@@ -0,0 +1,241 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+
+/**
+ * It is used to implement D * Lite strategy, which replans path after cells of maze are blocked or opened
+ * without searching again from scratch. Search runs from goal towards start, so g of cell is cost to
+ * reach goal from it.
+ * <pre>
+ * g    - cost to goal found when cell was last expanded
+ * rhs  - one step look ahead cost, 1 + lowest g of open neighbors, 0 for goal
+ * key  - [min(g, rhs) + manhattan distance to start, min(g, rhs)], packed into one long priority
+ * </pre>
+ * Cell whose g and rhs differ is inconsistent and is kept in open list. Changing cell only makes the cell
+ * and its neighbors inconsistent, so replanning expands only cells whose cost to goal changed and which
+ * can lie on path to start. Path is walked from start to neighbor with lowest g.
+ * Cells to change are taken from --block-cells and --unblock-cells, each of which is one update.
+ * Start does not move, so key modifier of D * Lite is always 0. It works on PATH finding only.
+ *
+ * @author rudani2
+ *
+ */
+public class DStarLite extends SearchOperation {
+
+    private static final int INFINITE_COST = Integer.MAX_VALUE;
+
+    private final CompiledMaze maze;
+    private final int startCell;
+    private final int goalCell;
+    private final int[] neighborOffsets;
+    private int[] costToGoal;
+    private int[] lookAheadCost;
+    private IndexedMinHeap openCell;
+    private char[][] solutionMaze;
+    private int[] solutionPath;
+    private long nodesExpanded = 0L;
+    private long stepCost = 0L;
+    private long solutionCost = 0L;
+
+    DStarLite(CompiledMaze maze) {
+        this.maze = maze;
+        this.startCell = maze.getStartCell();
+        this.goalCell = maze.getGoalCell();
+        this.neighborOffsets = maze.getNeighborOffsets();
+    }
+
+    @Override
+    public void findPath() {
+        if (!Preprocessing.isPathFind()) {
+            throw new IllegalArgumentException("D * Lite supports only PATH finding");
+        }
+        initialize();
+        long expanded = replan();
+        System.out.println("Initial plan expanded " + expanded + ", path cost " + formatCost(costToGoal[startCell]));
+        replanAfterUpdate("blocking", SearchConfiguration.getBlockedCells(), true);
+        replanAfterUpdate("opening", SearchConfiguration.getUnblockedCells(), false);
+        // Check if solution exist
+        if (costToGoal[startCell] != INFINITE_COST) {
+            this.solutionPath = buildPath();
+            this.stepCost = solutionPath.length - 1;
+            this.solutionCost = costToGoal[startCell];
+        }
+    }
+
+    /**
+     * It is used to change given cells and replan, reporting cells expanded again by the update.
+     *
+     * @param action
+     * @param cells row and column of every cell, one after other
+     * @param isBlocked
+     */
+    private void replanAfterUpdate(String action, int[] cells, boolean isBlocked) {
+        if (cells.length == 0) {
+            return;
+        }
+        for (int i = 0; i < cells.length; i += 2) {
+            if (cells[i] < 0 || cells[i] >= maze.getRowCount() || cells[i + 1] < 0
+                    || cells[i + 1] >= maze.getColumnCount()) {
+                throw new IllegalArgumentException("Cell " + cells[i] + ":" + cells[i + 1] + " is outside the maze");
+            }
+            setBlocked(maze.getCellId(cells[i], cells[i + 1]), isBlocked);
+        }
+        long expanded = replan();
+        System.out.println("Replanned after " + action + " " + (cells.length / 2) + " cells, re-expanded "
+                + expanded + ", path cost " + formatCost(costToGoal[startCell]));
+    }
+
+    private void initialize() {
+        costToGoal = new int[maze.getCellCount()];
+        lookAheadCost = new int[maze.getCellCount()];
+        Arrays.fill(costToGoal, INFINITE_COST);
+        Arrays.fill(lookAheadCost, INFINITE_COST);
+        openCell = new IndexedMinHeap(MazeConstant.QUEUE_INITIAL_CAPACITY);
+        lookAheadCost[goalCell] = 0;
+        openCell.offer(goalCell, getKey(goalCell));
+    }
+
+    /**
+     * It is used to block or open the cell in maze and to make the cell and its neighbors consistent again
+     * on next replan. Moves into blocked cell and out of it are removed, so cell costs infinite.
+     *
+     * @param cell
+     * @param isBlocked
+     */
+    void setBlocked(int cell, boolean isBlocked) {
+        if (maze.isWall(cell) == isBlocked) {
+            return;
+        }
+        maze.setBlocked(cell, isBlocked);
+        updateCell(cell);
+        for (int offset : neighborOffsets) {
+            if (!maze.isWall(cell + offset)) {
+                updateCell(cell + offset);
+            }
+        }
+    }
+
+    /**
+     * It is used to expand inconsistent cells till start is consistent and no open cell has lower key.
+     *
+     * @return long number of cells expanded
+     */
+    long replan() {
+        long expanded = 0L;
+        while (!openCell.isEmpty()
+                && (openCell.peekPriority() < getKey(startCell) || lookAheadCost[startCell] != costToGoal[startCell])) {
+            int cell = openCell.poll();
+            expanded += 1;
+            if (costToGoal[cell] > lookAheadCost[cell]) {
+                // Cost to goal went down, it is final till next change
+                costToGoal[cell] = lookAheadCost[cell];
+            } else {
+                // Cost to goal went up, so it is raised to infinite and cell is expanded again later
+                costToGoal[cell] = INFINITE_COST;
+                updateCell(cell);
+            }
+            for (int offset : neighborOffsets) {
+                if (!maze.isWall(cell + offset)) {
+                    updateCell(cell + offset);
+                }
+            }
+        }
+        nodesExpanded += expanded;
+        return expanded;
+    }
+
+    /**
+     * It is used to recalculate rhs of given cell and to keep it in open list only if it is inconsistent.
+     *
+     * @param cell
+     */
+    private void updateCell(int cell) {
+        if (cell != goalCell) {
+            int lowestCost = INFINITE_COST;
+            if (!maze.isWall(cell)) {
+                for (int offset : neighborOffsets) {
+                    int neighbor = cell + offset;
+                    if (!maze.isWall(neighbor) && costToGoal[neighbor] != INFINITE_COST) {
+                        lowestCost = Math.min(lowestCost, costToGoal[neighbor] + MazeConstant.FORWARD_COST);
+                    }
+                }
+            }
+            lookAheadCost[cell] = lowestCost;
+        }
+        if (costToGoal[cell] != lookAheadCost[cell]) {
+            openCell.update(cell, getKey(cell));
+        } else {
+            openCell.remove(cell);
+        }
+    }
+
+    /**
+     * It is used to pack key of cell as first key in high 32 bits and second key in low 32 bits, so that
+     * keys are compared lexicographically as one long. Key of cell with infinite g and rhs is highest.
+     *
+     * @param cell
+     * @return long
+     */
+    private long getKey(int cell) {
+        int cost = Math.min(costToGoal[cell], lookAheadCost[cell]);
+        if (cost == INFINITE_COST) {
+            return Long.MAX_VALUE;
+        }
+        return ((long) (cost + maze.getManhattanDistance(startCell, cell)) << 32) | cost;
+    }
+
+    /**
+     * It is used to walk from start to goal, moving every time to open neighbor with lowest cost to goal.
+     *
+     * @return int[] cell ids from start to goal
+     */
+    private int[] buildPath() {
+        int[] path = new int[costToGoal[startCell] + 1];
+        int cell = startCell;
+        path[0] = cell;
+        for (int i = 1; i < path.length; i++) {
+            int nextCell = cell;
+            for (int offset : neighborOffsets) {
+                int neighbor = cell + offset;
+                if (!maze.isWall(neighbor) && costToGoal[neighbor] < costToGoal[nextCell]) {
+                    nextCell = neighbor;
+                }
+            }
+            cell = nextCell;
+            path[i] = cell;
+        }
+        return path;
+    }
+
+    private static String formatCost(int cost) {
+        return cost == INFINITE_COST ? "infinite" : String.valueOf(cost);
+    }
+
+    @Override
+    public char[][] getSolutionMaze() {
+        if (solutionMaze == null) {
+            solutionMaze = maze.toSolutionMatrix(solutionPath);
+        }
+        return solutionMaze;
+    }
+
+    @Override
+    public long getStepCost() {
+        return stepCost;
+    }
+
+    @Override
+    public long getSolutionCost() {
+        return solutionCost;
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public String getSearchStrategyName() {
+        return "D * Lite";
+    }
+}
@@ -0,0 +1,21 @@
+package ai.mp.search.strategy;
+
+/**
+ * It specify contract of BFS engines which flood whole maze from single source cell and build distance map.
+ * Distance of every cell is its BFS layer number, so it does not depend on engine or on order in which
+ * cells of same layer are found. Cell which can not be reached is kept at
+ * {@link GoalDistanceMatrix#UNREACHABLE} distance. It is selected on command line by --flood-fill.
+ *
+ * @author rudani2
+ *
+ */
+interface FloodFill {
+
+    /**
+     * It is used to build distance of every cell from given source cell.
+     *
+     * @param sourceCell
+     * @return int[] distance indexed by cell id
+     */
+    int[] getDistances(int sourceCell);
+}
@@ -0,0 +1,174 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * It is used to implement Focal search (A * epsilon) strategy. It keeps two lists of open states
+ * <pre>
+ * Open list   - every open state sorted by f = g + h
+ * Focal list  - open states whose f is within (1 + epsilon) times lowest f, sorted by h
+ * </pre>
+ * State is always expanded from focal list, so search heads towards goal while it stays within bound.
+ * Lowest f never overestimates cheapest solution cost, so path found costs at most (1 + epsilon) times
+ * cheapest path. State reached again by cheaper path is opened again even if it is expanded.
+ * It works on PATH finding and multiple goal search.
+ *
+ * @author rudani2
+ *
+ */
+public class FocalSearch extends SearchOperation {
+
+    private static boolean isGoalReached = false;
+
+    private final CompiledMaze maze;
+    private final double epsilon;
+    private char[][] solutionMaze;
+    private int[] solutionPath;
+    private int[] goalOrder;
+    private long nodesExpanded = 0L;
+    private long stepCost = 0L;
+    private long solutionCost = 0L;
+
+    FocalSearch(CompiledMaze maze) {
+        this.maze = maze;
+        this.epsilon = SearchConfiguration.getFocalEpsilon();
+    }
+
+    @Override
+    public void findPath() {
+        if (Preprocessing.isPathFind()) {
+            findPath(newPathFindProblem(maze, new ManhattanHeuristic(maze)));
+        } else if (Preprocessing.isMultipleGoal()) {
+            MultiGoalSearchProblem problem = new MultiGoalSearchProblem(maze, SearchConfiguration.NEAREST_MST_HEURISTIC);
+            // Some goal may be walled off from start position, then no path can cover all the goals
+            if (problem.areGoalsReachable()) {
+                findPath(problem);
+            }
+        } else {
+            throw new IllegalArgumentException("Focal search supports only PATH finding and Multiple GOAL");
+        }
+    }
+
+    /**
+     * It is used to find the path from start state to goal state of given problem.
+     * Open states which are not yet in focal list are kept in pending list sorted by f, so that they
+     * can be moved to focal list in order when lowest f grows.
+     *
+     * @param problem
+     */
+    private void findPath(SearchProblem problem) {
+        IndexedMinHeap openState = new IndexedMinHeap(MazeConstant.QUEUE_INITIAL_CAPACITY);
+        IndexedMinHeap pendingState = new IndexedMinHeap(MazeConstant.QUEUE_INITIAL_CAPACITY);
+        IndexedMinHeap focalState = new IndexedMinHeap(MazeConstant.QUEUE_INITIAL_CAPACITY);
+        BitSet expandedState = new BitSet();
+        int capacity = Math.max(MazeConstant.QUEUE_INITIAL_CAPACITY, problem.getStateCount());
+        int[] parent = new int[capacity];
+        int[] approachableCost = new int[capacity];
+        int[] successors = new int[problem.getMaxSuccessorCount()];
+        int[] moveCosts = new int[problem.getMaxSuccessorCount()];
+
+        int currentState = problem.getStartState();
+        parent[currentState] = currentState;
+        long heuristicCost = problem.getHeuristic(currentState);
+        long focalBound = getFocalBound(heuristicCost);
+        openState.offer(currentState, heuristicCost);
+        focalState.offer(currentState, heuristicCost);
+
+        while (!openState.isEmpty()) {
+            // Move pending states into focal list when lowest f grows
+            long lowestBound = getFocalBound(openState.peekPriority());
+            if (lowestBound > focalBound) {
+                focalBound = lowestBound;
+                while (!pendingState.isEmpty() && pendingState.peekPriority() <= focalBound) {
+                    int state = pendingState.poll();
+                    focalState.offer(state, openState.getPriority(state) - approachableCost[state]);
+                }
+            }
+            currentState = focalState.poll();
+            openState.remove(currentState);
+            if (problem.isGoal(currentState)) {
+                isGoalReached = true;
+                break;
+            }
+            expandedState.set(currentState);
+            nodesExpanded += 1;
+
+            int successorCount = problem.getSuccessors(currentState, successors, moveCosts);
+            for (int i = 0; i < successorCount; i++) {
+                int child = successors[i];
+                if (child >= parent.length) {
+                    int newCapacity = Math.max(parent.length * 2, child + 1);
+                    parent = Arrays.copyOf(parent, newCapacity);
+                    approachableCost = Arrays.copyOf(approachableCost, newCapacity);
+                }
+                int approachedCost = approachableCost[currentState] + moveCosts[i];
+                boolean isSeen = expandedState.get(child) || openState.contains(child);
+                if (isSeen && approachedCost >= approachableCost[child]) {
+                    continue;
+                }
+                // Open the state again if it was expanded through costlier path
+                expandedState.clear(child);
+                parent[child] = currentState;
+                approachableCost[child] = approachedCost;
+                long childHeuristicCost = problem.getHeuristic(child);
+                long childCost = approachedCost + childHeuristicCost;
+                openState.update(child, childCost);
+                if (childCost <= focalBound) {
+                    pendingState.remove(child);
+                    focalState.update(child, childHeuristicCost);
+                } else {
+                    pendingState.update(child, childCost);
+                }
+            }
+        }
+        // Check if solution exist
+        if (isGoalReached) {
+            int[] statePath = buildSolutionPath(parent, currentState);
+            this.solutionPath = problem.toCellPath(statePath);
+            this.stepCost = solutionPath.length - 1;
+            this.solutionCost = approachableCost[currentState];
+            this.goalOrder = problem.getGoalOrder(solutionPath);
+        }
+    }
+
+    private long getFocalBound(long lowestCost) {
+        return (long) Math.floor((1.0 + epsilon) * lowestCost);
+    }
+
+    @Override
+    public char[][] getSolutionMaze() {
+        if (solutionMaze == null) {
+            solutionMaze = maze.toSolutionMatrix(solutionPath);
+            if (goalOrder != null) {
+                drawGoalOrder(solutionMaze, maze, goalOrder);
+            }
+        }
+        return solutionMaze;
+    }
+
+    @Override
+    public long getStepCost() {
+        return stepCost;
+    }
+
+    @Override
+    public long getSolutionCost() {
+        return solutionCost;
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public String getSearchStrategyName() {
+        return "Focal search";
+    }
+
+    @Override
+    public MazeMetrics getMetrics() {
+        return new MazeMetrics(stepCost, solutionCost, MazeConstant.DEFAULT_PENALTY, 1.0 + epsilon);
+    }
+}
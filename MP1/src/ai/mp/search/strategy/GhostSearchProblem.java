@@ -0,0 +1,90 @@
+package ai.mp.search.strategy;
+
+/**
+ * It is the single goal problem on {@link CompiledMaze} with ghost moving along {@link GhostTrajectory}.
+ * Ghost position depends on time only, so state is (cell id * period) + phase, where phase is step mod
+ * period of ghost. Every move costs {@link MazeConstant#FORWARD_COST} and ghost moves one cell with it.
+ * Move is not allowed if
+ * <pre>
+ * Same cell - Pacman moves to the cell ghost moves to
+ * Swap      - Pacman and ghost move into each other's cell
+ * </pre>
+ * It uses manhattan as heuristic function unless other {@link CellHeuristic} is given.
+ *
+ * @author rudani2
+ *
+ */
+class GhostSearchProblem implements SearchProblem {
+
+    private final CompiledMaze maze;
+    private final int goalCell;
+    private final GhostTrajectory trajectory;
+    private final int period;
+    private final CellHeuristic heuristic;
+
+    GhostSearchProblem(CompiledMaze maze, GhostTrajectory trajectory, CellHeuristic heuristic) {
+        if (((long) maze.getCellCount() * trajectory.getPeriod()) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maze is too large to search with ghost of period "
+                    + trajectory.getPeriod());
+        }
+        this.maze = maze;
+        this.goalCell = maze.getGoalCell();
+        this.trajectory = trajectory;
+        this.period = trajectory.getPeriod();
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public int getStartState() {
+        return maze.getStartCell() * period;
+    }
+
+    @Override
+    public boolean isGoal(int state) {
+        return maze.isGoal(getCell(state));
+    }
+
+    @Override
+    public int getSuccessors(int state, int[] successors, int[] costs) {
+        int cell = getCell(state);
+        int phase = state % period;
+        int nextPhase = (phase + 1) == period ? 0 : (phase + 1);
+        int ghostCell = trajectory.getGhostCell(phase);
+        int nextGhostCell = trajectory.getGhostCell(nextPhase);
+        int count = 0;
+        for (int offset : maze.getNeighborOffsets()) {
+            int child = cell + offset;
+            if (maze.isWall(child) || child == nextGhostCell || (child == ghostCell && cell == nextGhostCell)) {
+                continue;
+            }
+            successors[count] = (child * period) + nextPhase;
+            costs[count++] = MazeConstant.FORWARD_COST;
+        }
+        return count;
+    }
+
+    @Override
+    public int getMaxSuccessorCount() {
+        return maze.getNeighborOffsets().length;
+    }
+
+    @Override
+    public long getHeuristic(int state) {
+        return heuristic.getDistance(getCell(state), goalCell);
+    }
+
+    @Override
+    public int getCell(int state) {
+        return state / period;
+    }
+
+    @Override
+    public int getStateCount() {
+        return maze.getCellCount() * period;
+    }
+
+    @Override
+    public int[] getGoalOrder(int[] cellPath) {
+        return null;
+    }
+}
@@ -0,0 +1,69 @@
+package ai.mp.search.strategy;
+
+/**
+ * It holds the cells visited by ghost over one period of its movement. Ghost moves one cell per step in
+ * its direction and turns back when next cell is wall, so it goes back and forth along its corridor
+ * and comes back to same cell and direction after 2 * (corridor length - 1) steps.
+ * <pre>
+ * ghostCell - cell of ghost at every phase, where phase is step mod period
+ * </pre>
+ * Ghost which has wall on both sides can not move, so its period is 1.
+ *
+ * @author rudani2
+ *
+ */
+class GhostTrajectory {
+
+    private final int[] ghostCell;
+
+    /**
+     * It is used to precompute the ghost cell of every phase.
+     *
+     * @param maze
+     * @param startCell cell of ghost at step 0
+     * @param direction direction of ghost at step 0, one of UP, DOWN, LEFT, RIGHT direction
+     */
+    GhostTrajectory(CompiledMaze maze, int startCell, int direction) {
+        int offset = maze.getNeighborOffsets()[direction - 1];
+        if (maze.isWall(startCell + offset) && maze.isWall(startCell - offset)) {
+            this.ghostCell = new int[] { startCell };
+            return;
+        }
+        // Count the corridor cells along moving direction
+        int corridorLength = 1;
+        for (int cell = startCell + offset; !maze.isWall(cell); cell += offset) {
+            corridorLength += 1;
+        }
+        for (int cell = startCell - offset; !maze.isWall(cell); cell -= offset) {
+            corridorLength += 1;
+        }
+        this.ghostCell = new int[2 * (corridorLength - 1)];
+        int cell = startCell;
+        for (int phase = 0; phase < ghostCell.length; phase++) {
+            ghostCell[phase] = cell;
+            if (maze.isWall(cell + offset)) {
+                offset = -offset;
+            }
+            cell += offset;
+        }
+    }
+
+    /**
+     * It is used to get the number of steps after which ghost repeats its movement.
+     *
+     * @return int
+     */
+    int getPeriod() {
+        return ghostCell.length;
+    }
+
+    /**
+     * It is used to get the cell of ghost at given phase.
+     *
+     * @param phase step mod period
+     * @return int cell id
+     */
+    int getGhostCell(int phase) {
+        return ghostCell[phase];
+    }
+}
@@ -0,0 +1,218 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * It holds the true maze distance between goals of multi goal maze. One BFS is run from every goal
+ * and from start position, each as separate task on fork join pool.
+ * <pre>
+ * goal distance  - shortest step count between every pair of goals and between start and every goal
+ * cell distance  - shortest step count from every goal to every cell of maze
+ * </pre>
+ * Cell which can not be reached from goal is kept at {@link #UNREACHABLE} distance.
+ *
+ * @author rudani2
+ *
+ */
+public class GoalDistanceMatrix {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final CompiledMaze maze;
+    private final GoalIndex goals;
+    /**
+     * It holds the distance field of BFS from every goal, indexed by goal index and then cell id.
+     */
+    private final int[][] cellDistances;
+    /**
+     * It holds the goal to goal distance, indexed by (goal index * goal count) + other goal index.
+     */
+    private final int[] goalDistances;
+    private final int[] startDistances;
+
+    GoalDistanceMatrix(CompiledMaze maze, GoalIndex goals) {
+        this.maze = maze;
+        this.goals = goals;
+        int goalCount = goals.getGoalCount();
+        this.cellDistances = new int[goalCount][];
+        this.goalDistances = new int[goalCount * goalCount];
+        this.startDistances = new int[goalCount];
+
+        // Run BFS from every goal and from start in parallel
+        DistanceTask[] tasks = new DistanceTask[goalCount + 1];
+        for (int goal = 0; goal < goalCount; goal++) {
+            tasks[goal] = new DistanceTask(maze, goals.getGoalCell(goal));
+        }
+        tasks[goalCount] = new DistanceTask(maze, maze.getStartCell());
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (DistanceTask task : tasks) {
+            pool.execute(task);
+        }
+        for (int goal = 0; goal < goalCount; goal++) {
+            cellDistances[goal] = tasks[goal].join();
+        }
+        int[] startField = tasks[goalCount].join();
+
+        // Pick goal to goal and start to goal distance out of distance fields
+        for (int goal = 0; goal < goalCount; goal++) {
+            for (int otherGoal = 0; otherGoal < goalCount; otherGoal++) {
+                goalDistances[(goal * goalCount) + otherGoal] = cellDistances[goal][goals.getGoalCell(otherGoal)];
+            }
+            startDistances[goal] = startField[goals.getGoalCell(goal)];
+        }
+    }
+
+    /**
+     * It is used to get the maze distance between two goals.
+     *
+     * @param goal
+     * @param otherGoal
+     * @return int
+     */
+    public int getDistance(int goal, int otherGoal) {
+        return goalDistances[(goal * goals.getGoalCount()) + otherGoal];
+    }
+
+    /**
+     * It is used to get the maze distance from start position to goal.
+     *
+     * @param goal
+     * @return int
+     */
+    public int getStartDistance(int goal) {
+        return startDistances[goal];
+    }
+
+    /**
+     * It is used to get the maze distance from goal to any cell.
+     *
+     * @param goal
+     * @param cellId
+     * @return int
+     */
+    public int getCellDistance(int goal, int cellId) {
+        return cellDistances[goal][cellId];
+    }
+
+    /**
+     * It is used to check whether every goal can be reached from start position.
+     *
+     * @return boolean
+     */
+    public boolean areGoalsReachable() {
+        for (int distance : startDistances) {
+            if (distance == UNREACHABLE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * It is used to build cell path which starts at given cell and covers the goals in given order.
+     * Each leg walks down the distance field of next goal, so it is shortest path between them.
+     *
+     * @param startCell
+     * @param goalTour goal indices in visiting order
+     * @return int[] cell path from start cell to last goal of tour
+     */
+    public int[] buildTourPath(int startCell, int[] goalTour) {
+        int length = 1;
+        int cell = startCell;
+        for (int goal : goalTour) {
+            length += cellDistances[goal][cell];
+            cell = goals.getGoalCell(goal);
+        }
+        int[] path = new int[length];
+        int index = 0;
+        cell = startCell;
+        path[index++] = cell;
+        for (int goal : goalTour) {
+            int[] distance = cellDistances[goal];
+            while (distance[cell] > 0) {
+                for (int offset : maze.getNeighborOffsets()) {
+                    if (distance[cell + offset] == distance[cell] - 1) {
+                        cell += offset;
+                        break;
+                    }
+                }
+                path[index++] = cell;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * It is used to find the order in which goals are first reached along given cell path.
+     *
+     * @param path
+     * @return int[] goal cells in visited order
+     */
+    public int[] getGoalOrder(int[] path) {
+        int[] goalOrder = new int[goals.getGoalCount()];
+        int goalCount = 0;
+        long[] remainingGoals = goals.newFullMask();
+        for (int cell : path) {
+            int goal = goals.indexOf(cell);
+            if (goal >= 0 && GoalIndex.isSet(remainingGoals, goal)) {
+                GoalIndex.clear(remainingGoals, goal);
+                goalOrder[goalCount++] = cell;
+            }
+        }
+        return Arrays.copyOf(goalOrder, goalCount);
+    }
+
+    public GoalIndex getGoalIndex() {
+        return goals;
+    }
+
+    /**
+     * It is used to run BFS from single source cell and build distance to every cell. BFS is
+     * {@link BitParallelFloodFill} if --flood-fill=bitset is set. Tasks already run in parallel, so
+     * --flood-fill=parallel keeps queue BFS here.
+     *
+     * @author rudani2
+     *
+     */
+    static class DistanceTask extends RecursiveTask<int[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CompiledMaze maze;
+        private final int sourceCell;
+
+        DistanceTask(CompiledMaze maze, int sourceCell) {
+            this.maze = maze;
+            this.sourceCell = sourceCell;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (SearchConfiguration.BITSET_FLOOD_FILL.equals(SearchConfiguration.getFloodFill())) {
+                return new BitParallelFloodFill(maze).getDistances(sourceCell);
+            }
+            int[] distance = new int[maze.getCellCount()];
+            Arrays.fill(distance, UNREACHABLE);
+            // Every cell enters the queue at most once, so plain array is enough
+            int[] queue = new int[maze.getCellCount()];
+            int head = 0;
+            int tail = 0;
+            distance[sourceCell] = 0;
+            queue[tail++] = sourceCell;
+            while (head < tail) {
+                int cell = queue[head++];
+                int childDistance = distance[cell] + 1;
+                for (int offset : maze.getNeighborOffsets()) {
+                    int child = cell + offset;
+                    if (!maze.isWall(child) && distance[child] == UNREACHABLE) {
+                        distance[child] = childDistance;
+                        queue[tail++] = child;
+                    }
+                }
+            }
+            return distance;
+        }
+    }
+}
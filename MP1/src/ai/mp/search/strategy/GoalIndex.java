@@ -0,0 +1,90 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+
+/**
+ * It is used to number the goal cells of maze from 0 to (goal count - 1) so that set of remaining
+ * goals can be kept as bit mask. Mask is an array of long words, bit i of word (i / 64) is set when
+ * goal i is yet to be visited. Maze with up to 64 goals needs single word.
+ *
+ * @author rudani2
+ *
+ */
+public class GoalIndex {
+
+    private final int[] goalCells;
+    private final int wordCount;
+
+    GoalIndex(int[] goalCells) {
+        // Goal cells are collected row by row, but keep them sorted for binary search anyway
+        this.goalCells = goalCells.clone();
+        Arrays.sort(this.goalCells);
+        this.wordCount = Math.max(1, (goalCells.length + 63) >>> 6);
+    }
+
+    /**
+     * It is used to get the index of goal at given cell.
+     *
+     * @param cellId
+     * @return int goal index or -1 if cell is not goal
+     */
+    public int indexOf(int cellId) {
+        int index = Arrays.binarySearch(goalCells, cellId);
+        return index < 0 ? -1 : index;
+    }
+
+    public int getGoalCell(int goalIndex) {
+        return goalCells[goalIndex];
+    }
+
+    public int getGoalCount() {
+        return goalCells.length;
+    }
+
+    /**
+     * It is used to get the number of long words in every goal mask.
+     *
+     * @return int
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * It is used to create goal mask where every goal is yet to be visited.
+     *
+     * @return long[]
+     */
+    public long[] newFullMask() {
+        long[] mask = new long[wordCount];
+        for (int goal = 0; goal < goalCells.length; goal++) {
+            mask[goal >>> 6] |= (1L << goal);
+        }
+        return mask;
+    }
+
+    public static boolean isSet(long[] mask, int goalIndex) {
+        return (mask[goalIndex >>> 6] & (1L << goalIndex)) != 0;
+    }
+
+    public static void clear(long[] mask, int goalIndex) {
+        mask[goalIndex >>> 6] &= ~(1L << goalIndex);
+    }
+
+    public static boolean isEmpty(long[] mask) {
+        for (long word : mask) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int cardinality(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
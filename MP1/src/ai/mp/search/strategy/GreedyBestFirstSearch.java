@@ -1,11 +1,10 @@
 package ai.mp.search.strategy;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.BitSet;
 
 /**
  * It is used to implement Greedy Best First Search strategy. 
- * It used Manhattan distance as a heuristic function.
+ * It used Manhattan distance as a heuristic function unless other heuristic is selected by --heuristic.
  * 
  * @author rudani2
  *
@@ -14,111 +13,87 @@ public class GreedyBestFirstSearch extends SearchOperation {
 
     private static boolean isGoalReached = false;
 
-    private final int [][] inputMaze;
-    private final char[][] solutionMaze;
+    private final CompiledMaze maze;
+    private CellHeuristic heuristic;
+    private char[][] solutionMaze;
+    private int[] solutionPath;
     private long nodesExpanded = 0L;
     private long stepCost = 0L;
     private long solutionCost = 0L;
 
-    GreedyBestFirstSearch(int [][] inputMaze, char[][] solutionMaze) {
-        this.inputMaze = inputMaze;
-        this.solutionMaze = solutionMaze;
+    GreedyBestFirstSearch(CompiledMaze maze) {
+        this.maze = maze;
     }
 
     @Override
     public void findPath() {
+        this.heuristic = newCellHeuristic(maze);
         /**
-         * It holds all the available positions which are yet to be expanded.
+         * It holds the cell id of all the available positions which are yet to be expanded.
          * It is sorted based on cost.
          */
-        PriorityQueue<Position> openPosition = new PriorityQueue<Position>(MazeConstant.QUEUE_INITIAL_CAPACITY, new PositionComparator());
+        PriorityOpenList openPosition = newOpenList(maze.getCellCount());
+        int[] parent = maze.newParentArray();
         // Add the start position into open position
-        openPosition.add(Preprocessing.getStartPosition());
-        findPathUsingGreedy(openPosition);
+        parent[maze.getStartCell()] = maze.getStartCell();
+        openPosition.offer(maze.getStartCell(), getHeuristicValue(maze.getGoalCell(), maze.getStartCell()));
+        findPathUsingGreedy(openPosition, parent);
     }
 
     /**
      * It is used to find the path from start position to goal state using Greedy based approach.
-     * It uses manhattan as heuristic function.
      * 
      * @param openPosition
+     * @param parent
      */
-    private void findPathUsingGreedy(PriorityQueue<Position> openPosition) {
-        Position currentPosition = null;
+    private void findPathUsingGreedy(PriorityOpenList openPosition, int[] parent) {
+        int currentPosition = MazeConstant.NO_CELL;
+        int[] neighborOffsets = maze.getNeighborOffsets();
+        BitSet visited = new BitSet(maze.getCellCount());
         // Traverse till openPosition is not empty and get the position with lowest heuristic value.
         while (!openPosition.isEmpty()) {
-            currentPosition =  openPosition.poll();
-            if (inputMaze[currentPosition.getX()][currentPosition.getY()] == MazeConstant.GOAL_POSITION_MARKER) {
+            currentPosition = openPosition.poll();
+            if (maze.isGoal(currentPosition)) {
                 isGoalReached = true;
                 break;
-            } else {
-                // Mark as visited
-                inputMaze[currentPosition.getX()][currentPosition.getY()] = MazeConstant.VISITED;
-                // Increment the nodes expanded
-                nodesExpanded += 1;
-                // Get the successor node
-                getSuccessorNode(currentPosition, openPosition);
+            }
+            // Mark as visited
+            visited.set(currentPosition);
+            // Increment the nodes expanded
+            nodesExpanded += 1;
+            // Get the successor node. It excludes if it is wall or already visited node.
+            // If the child is valid, its heuristic value is calculated and added to openPosition.
+            for (int offset : neighborOffsets) {
+                int child = currentPosition + offset;
+                if (!maze.isWall(child) && !visited.get(child) && !openPosition.contains(child)) {
+                    parent[child] = currentPosition;
+                    openPosition.offer(child, getHeuristicValue(maze.getGoalCell(), child));
+                }
             }
         }
         // Check if solution exist
         if (isGoalReached) {
-            this.stepCost = drawSolutionPath(this.getSolutionMaze(), currentPosition).getStepCost();
-        }
-    }
-
-    /**
-     * It is used to find successor for given node. It excludes if it is wall or already visited node.
-     * If the child is valid, its heuristic value is calculated and added to openPosition.
-     * 
-     * @param node
-     * @return Collection
-     */
-    private void getSuccessorNode(Position currentPosition, PriorityQueue<Position> openPosition) {
-        Position child = null;
-        // Get the upper node
-        child = new Position((currentPosition.getX()-1), currentPosition.getY(), currentPosition
-                , MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-        if (isChildValid(inputMaze, child)) {
-            child.setCost( getHeuristicValue(Preprocessing.getGoalPosition(), child) );
-            openPosition.add(child);
-        }
-        // Get the lower node
-        child = new Position((currentPosition.getX()+1), currentPosition.getY(), currentPosition
-                , MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-        if (isChildValid(inputMaze, child)) {
-            child.setCost( getHeuristicValue(Preprocessing.getGoalPosition(), child) );
-            openPosition.add(child);
-        }
-        // Get the left node
-        child = new Position(currentPosition.getX(), (currentPosition.getY()-1), currentPosition
-                , MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-        if (isChildValid(inputMaze, child)) {
-            child.setCost( getHeuristicValue(Preprocessing.getGoalPosition(), child) );
-            openPosition.add(child);
-        }
-        // Get the right node
-        child = new Position(currentPosition.getX(), (currentPosition.getY()+1), currentPosition
-                , MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-        if (isChildValid(inputMaze, child)) {
-            child.setCost( getHeuristicValue(Preprocessing.getGoalPosition(), child) );
-            openPosition.add(child);
+            this.solutionPath = buildSolutionPath(parent, currentPosition);
+            this.stepCost = solutionPath.length - 1;
         }
     }
 
     /**
-     * It is used to calculate heuristic value based on Manhattan distance between goal state and current state.
-     * Manhattan distance formula is |x1 - x2| + |y1 - y2|
+     * It is used to calculate heuristic value between goal state and current state.
      * 
      * @param goalState
      * @param currentPosition
      * @return long
      */
-    private long getHeuristicValue(Position goalState, Position currentPosition) {
-        return ( ( Math.abs(goalState.getX() - currentPosition.getX()) ) + ( Math.abs(goalState.getY() - currentPosition.getY()) ) );
+    private long getHeuristicValue(int goalState, int currentPosition) {
+        return heuristic.getDistance(currentPosition, goalState);
     }
 
     @Override
     public char[][] getSolutionMaze() {
+        if (solutionMaze == null) {
+            solutionMaze = maze.toSolutionMatrix(solutionPath);
+        }
         return this.solutionMaze;
     }
 
@@ -143,15 +118,3 @@ public class GreedyBestFirstSearch extends SearchOperation {
     }
 
 }
-
-/**
- * It is used to compare two position based on heuristic function.
- *
- */
-class PositionComparator implements Comparator<Position> {
-
-    @Override
-    public int compare(Position o1, Position o2) {
-        return (int) (o1.getCost() - o2.getCost());
-    }
-}
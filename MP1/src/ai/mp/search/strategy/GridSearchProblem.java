@@ -0,0 +1,74 @@
+package ai.mp.search.strategy;
+
+/**
+ * It is the single goal PATH finding problem on {@link CompiledMaze}. State is cell id itself and
+ * every move costs {@link MazeConstant#FORWARD_COST}. It uses manhattan as heuristic function unless
+ * other {@link CellHeuristic} is given.
+ *
+ * @author rudani2
+ *
+ */
+class GridSearchProblem implements SearchProblem {
+
+    private final CompiledMaze maze;
+    private final int goalCell;
+    private final CellHeuristic heuristic;
+
+    GridSearchProblem(CompiledMaze maze) {
+        this(maze, new ManhattanHeuristic(maze));
+    }
+
+    GridSearchProblem(CompiledMaze maze, CellHeuristic heuristic) {
+        this.maze = maze;
+        this.goalCell = maze.getGoalCell();
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public int getStartState() {
+        return maze.getStartCell();
+    }
+
+    @Override
+    public boolean isGoal(int state) {
+        return maze.isGoal(state);
+    }
+
+    @Override
+    public int getSuccessors(int state, int[] successors, int[] costs) {
+        int count = 0;
+        for (int offset : maze.getNeighborOffsets()) {
+            int child = state + offset;
+            if (!maze.isWall(child)) {
+                successors[count] = child;
+                costs[count++] = MazeConstant.FORWARD_COST;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int getMaxSuccessorCount() {
+        return maze.getNeighborOffsets().length;
+    }
+
+    @Override
+    public long getHeuristic(int state) {
+        return heuristic.getDistance(state, goalCell);
+    }
+
+    @Override
+    public int getCell(int state) {
+        return state;
+    }
+
+    @Override
+    public int getStateCount() {
+        return maze.getCellCount();
+    }
+
+    @Override
+    public int[] getGoalOrder(int[] cellPath) {
+        return null;
+    }
+}
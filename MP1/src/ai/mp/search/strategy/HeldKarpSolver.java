@@ -0,0 +1,199 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * It is used to find cheapest order to cover every goal of multi goal maze using Held-Karp dynamic
+ * programming over {@link GoalDistanceMatrix}. Tour starts at start position and ends at any goal.
+ * <pre>
+ * cost(set, last)  - cheapest path from start which covers every goal in set and ends at goal last
+ * cost({g}, g)     - start distance of g
+ * cost(set, last)  - min over prev in (set - last) of cost(set - last, prev) + distance(prev, last)
+ * </pre>
+ * Every set of size k depends only on sets of size (k - 1), so all sets of same size are solved in
+ * parallel on fork join pool. Order is rebuilt by checking which prev gives the stored cost, so no
+ * parent table is kept.
+ *
+ * @author rudani2
+ *
+ */
+public class HeldKarpSolver {
+
+    /**
+     * It is the largest goal count supported. Cost table has (2 ^ goal count) * goal count entries.
+     */
+    public static final int MAX_GOAL_COUNT = 22;
+
+    /**
+     * It is the number of goal sets solved by single task before it is not split further.
+     */
+    private static final int SETS_PER_TASK = 1 << 10;
+
+    private final GoalDistanceMatrix distances;
+    private final int goalCount;
+    private int[] cost;
+    private long tourCost = MazeConstant.DEFAULT_COST;
+
+    HeldKarpSolver(GoalDistanceMatrix distances) {
+        this.distances = distances;
+        this.goalCount = distances.getGoalIndex().getGoalCount();
+        if (goalCount > MAX_GOAL_COUNT) {
+            throw new IllegalArgumentException("Held-Karp solver supports at most " + MAX_GOAL_COUNT
+                    + " goals. Found " + goalCount + " goals");
+        }
+    }
+
+    /**
+     * It is used to solve the tour and get the goals in visiting order.
+     *
+     * @return int[] goal indices in visiting order
+     */
+    public int[] solve() {
+        if (goalCount == 0) {
+            tourCost = 0L;
+            return new int[0];
+        }
+        cost = new int[(1 << goalCount) * goalCount];
+        Arrays.fill(cost, GoalDistanceMatrix.UNREACHABLE);
+        for (int goal = 0; goal < goalCount; goal++) {
+            cost[((1 << goal) * goalCount) + goal] = distances.getStartDistance(goal);
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (int setSize = 2; setSize <= goalCount; setSize++) {
+            int[] goalSets = getGoalSets(setSize);
+            pool.invoke(new GoalSetTask(goalSets, 0, goalSets.length));
+        }
+        return buildTour();
+    }
+
+    /**
+     * It is used to enumerate every goal set of given size in increasing order using Gosper's hack.
+     *
+     * @param setSize
+     * @return int[] goal sets as bit mask
+     */
+    private int[] getGoalSets(int setSize) {
+        int[] goalSets = new int[(int) getCombinationCount(goalCount, setSize)];
+        int goalSet = (1 << setSize) - 1;
+        for (int i = 0; i < goalSets.length; i++) {
+            goalSets[i] = goalSet;
+            int lowestBit = goalSet & -goalSet;
+            int ripple = goalSet + lowestBit;
+            goalSet = (((ripple ^ goalSet) >>> 2) / lowestBit) | ripple;
+        }
+        return goalSets;
+    }
+
+    private static long getCombinationCount(int n, int k) {
+        long count = 1L;
+        for (int i = 1; i <= k; i++) {
+            count = (count * (n - k + i)) / i;
+        }
+        return count;
+    }
+
+    /**
+     * It is used to solve every pair of given goal set and last goal in it.
+     *
+     * @param goalSet
+     */
+    private void solveGoalSet(int goalSet) {
+        for (int last = 0; last < goalCount; last++) {
+            if ((goalSet & (1 << last)) == 0) {
+                continue;
+            }
+            int previousSet = goalSet ^ (1 << last);
+            int previousBase = previousSet * goalCount;
+            int best = GoalDistanceMatrix.UNREACHABLE;
+            for (int previous = 0; previous < goalCount; previous++) {
+                if ((previousSet & (1 << previous)) != 0 && cost[previousBase + previous] != GoalDistanceMatrix.UNREACHABLE) {
+                    best = Math.min(best, cost[previousBase + previous] + distances.getDistance(previous, last));
+                }
+            }
+            cost[(goalSet * goalCount) + last] = best;
+        }
+    }
+
+    /**
+     * It is used to rebuild the visiting order backward from cheapest last goal of full goal set.
+     *
+     * @return int[] goal indices in visiting order or null if some goal can not be reached
+     */
+    private int[] buildTour() {
+        int goalSet = (1 << goalCount) - 1;
+        int last = 0;
+        for (int goal = 1; goal < goalCount; goal++) {
+            if (cost[(goalSet * goalCount) + goal] < cost[(goalSet * goalCount) + last]) {
+                last = goal;
+            }
+        }
+        if (cost[(goalSet * goalCount) + last] == GoalDistanceMatrix.UNREACHABLE) {
+            return null;
+        }
+        tourCost = cost[(goalSet * goalCount) + last];
+        int[] tour = new int[goalCount];
+        for (int i = goalCount - 1; i > 0; i--) {
+            tour[i] = last;
+            int lastCost = cost[(goalSet * goalCount) + last];
+            goalSet ^= (1 << last);
+            for (int previous = 0; previous < goalCount; previous++) {
+                if ((goalSet & (1 << previous)) != 0
+                        && cost[(goalSet * goalCount) + previous] != GoalDistanceMatrix.UNREACHABLE
+                        && cost[(goalSet * goalCount) + previous] + distances.getDistance(previous, last) == lastCost) {
+                    last = previous;
+                    break;
+                }
+            }
+        }
+        tour[0] = last;
+        return tour;
+    }
+
+    public long getTourCost() {
+        return tourCost;
+    }
+
+    /**
+     * It is used to get the number of (goal set, last goal) entries solved.
+     *
+     * @return long
+     */
+    public long getStateCount() {
+        return (long) goalCount << (goalCount - 1);
+    }
+
+    /**
+     * It is used to solve a range of goal sets of same size, splitting the range while it is large.
+     *
+     * @author rudani2
+     *
+     */
+    private class GoalSetTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] goalSets;
+        private final int from;
+        private final int to;
+
+        GoalSetTask(int[] goalSets, int from, int to) {
+            this.goalSets = goalSets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if ((to - from) <= SETS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    solveGoalSet(goalSets[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new GoalSetTask(goalSets, from, middle), new GoalSetTask(goalSets, middle, to));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ai.mp.search.strategy;
+
+import java.io.IOException;
+
+/**
+ * It is used to compare Manhattan and ALT heuristic by running Greedy and A * PATH finding with each
+ * of them. It takes following arguments
+ * <pre>
+ * 1. Maze file name
+ * 2. Optional settings such as --landmarks=N. See {@link SearchConfiguration}
+ * </pre>
+ * For every run it reports the nodes expanded, solution cost and search time. Time of building
+ * landmarks is reported separately, since landmarks are built once per maze.
+ *
+ * @author rudani2
+ *
+ */
+public class HeuristicBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: HeuristicBenchmark <maze file> [--landmarks=N]");
+            System.exit(1);
+        }
+        SearchConfiguration.parseArguments(args, 1);
+        // Additional option 5 is PATH finding
+        Preprocessing.processUserInput(5);
+        Preprocessing.preprocessFile(args[0]);
+        CompiledMaze maze = Preprocessing.getCompiledMaze();
+        // Build landmarks before timing the searches
+        LandmarkHeuristic.getInstance(maze, SearchConfiguration.getLandmarkCount());
+
+        String[] heuristics = {SearchConfiguration.MANHATTAN_HEURISTIC, SearchConfiguration.ALT_HEURISTIC};
+        for (String heuristic : heuristics) {
+            SearchConfiguration.parseArguments(new String[] {"--heuristic=" + heuristic}, 0);
+            SearchOperation[] strategies = {new GreedyBestFirstSearch(maze), new AStar(maze)};
+            for (SearchOperation strategy : strategies) {
+                long startTime = System.nanoTime();
+                strategy.findPath();
+                long elapsed = System.nanoTime() - startTime;
+                System.out.println(String.format("%-9s %-28s expanded %8d cost %6d time %.3f ms", heuristic
+                        , strategy.getSearchStrategyName(), strategy.getNodesExpanded(), strategy.getStepCost()
+                        , elapsed / 1e6));
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ai.mp.search.strategy;
+
+/**
+ * It is used to implement Hierarchical Path Finding A * (HPA *) strategy. Path is searched over
+ * {@link ClusterAbstraction} of maze, which is built once per maze and cluster size, and is refined
+ * into cells at the end. Cluster size is taken from --cluster-size.
+ * It works on PATH finding only.
+ *
+ * @author rudani2
+ *
+ */
+public class HierarchicalPathFinding extends SearchOperation {
+
+    private final CompiledMaze maze;
+    private char[][] solutionMaze;
+    private int[] solutionPath;
+    private long nodesExpanded = 0L;
+    private long stepCost = 0L;
+    private long solutionCost = 0L;
+
+    HierarchicalPathFinding(CompiledMaze maze) {
+        this.maze = maze;
+    }
+
+    @Override
+    public void findPath() {
+        if (!Preprocessing.isPathFind()) {
+            throw new IllegalArgumentException("HPA * supports only PATH finding");
+        }
+        ClusterAbstraction abstraction = ClusterAbstraction.getInstance(maze, SearchConfiguration.getClusterSize());
+        long startTime = System.nanoTime();
+        long expandedBefore = abstraction.getNodesExpanded();
+        int[] path = abstraction.findPath(maze.getStartCell(), maze.getGoalCell());
+        this.nodesExpanded = abstraction.getNodesExpanded() - expandedBefore;
+        if (SearchConfiguration.isVerbose()) {
+            System.out.println("HPA * query took " + ((System.nanoTime() - startTime) / 1000L) + " us");
+        }
+        // Check if solution exist
+        if (path != null) {
+            this.solutionPath = path;
+            this.stepCost = path.length - 1;
+            this.solutionCost = path.length - 1;
+        }
+    }
+
+    @Override
+    public char[][] getSolutionMaze() {
+        if (solutionMaze == null) {
+            solutionMaze = maze.toSolutionMatrix(solutionPath);
+        }
+        return solutionMaze;
+    }
+
+    @Override
+    public long getStepCost() {
+        return stepCost;
+    }
+
+    @Override
+    public long getSolutionCost() {
+        return solutionCost;
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public String getSearchStrategyName() {
+        return "HPA *";
+    }
+}
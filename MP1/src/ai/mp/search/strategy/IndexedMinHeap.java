@@ -0,0 +1,256 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+
+/**
+ * It is used as open list for the search strategies. It is an indexed 4-ary min heap keyed by
+ * int ids (packed cell id or state id) with primitive long priorities.
+ * <pre>
+ * heap     - holds the ids in heap order
+ * index    - holds the slot of every id in heap or -1 if id is not in heap
+ * priority - holds the current priority of every id
+ * </pre>
+ * Since the slot of every id is known, decrease key is done in place without removing and
+ * re-inserting the node, and no object is allocated per push or poll.
+ *
+ * @author rudani2
+ *
+ */
+public class IndexedMinHeap implements PriorityOpenList {
+
+    private static final int ARITY = 4;
+    private static final int ABSENT = -1;
+
+    private int[] heap;
+    private int[] index;
+    private long[] priority;
+    private int size = 0;
+
+    IndexedMinHeap(int capacity) {
+        int initialCapacity = Math.max(capacity, MazeConstant.QUEUE_INITIAL_CAPACITY);
+        this.heap = new int[initialCapacity];
+        this.index = new int[initialCapacity];
+        this.priority = new long[initialCapacity];
+        Arrays.fill(this.index, ABSENT);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * It is used to check whether given id is currently in the heap.
+     *
+     * @param id
+     * @return boolean
+     */
+    public boolean contains(int id) {
+        return id < index.length && index[id] != ABSENT;
+    }
+
+    /**
+     * It is used to get the priority of given id. Only valid if id is in heap.
+     *
+     * @param id
+     * @return long
+     */
+    public long getPriority(int id) {
+        return priority[id];
+    }
+
+    /**
+     * It is used to insert the id with given priority. If id is already in heap then
+     * its priority is lowered only if new priority is less than current priority.
+     *
+     * @param id
+     * @param newPriority
+     * @return boolean true if heap is modified
+     */
+    public boolean offer(int id, long newPriority) {
+        if (contains(id)) {
+            return decreaseKey(id, newPriority);
+        }
+        ensureCapacity(id + 1);
+        priority[id] = newPriority;
+        heap[size] = id;
+        index[id] = size;
+        size += 1;
+        siftUp(size - 1);
+        return true;
+    }
+
+    /**
+     * It is used to set the priority of id to any value. It inserts the id if not present.
+     *
+     * @param id
+     * @param newPriority
+     */
+    public void update(int id, long newPriority) {
+        if (!contains(id)) {
+            offer(id, newPriority);
+            return;
+        }
+        long oldPriority = priority[id];
+        priority[id] = newPriority;
+        if (newPriority < oldPriority) {
+            siftUp(index[id]);
+        } else {
+            siftDown(index[id]);
+        }
+    }
+
+    /**
+     * It is used to lower the priority of id which is already in heap.
+     *
+     * @param id
+     * @param newPriority
+     * @return boolean true if priority is lowered
+     */
+    public boolean decreaseKey(int id, long newPriority) {
+        if (newPriority >= priority[id]) {
+            return false;
+        }
+        priority[id] = newPriority;
+        siftUp(index[id]);
+        return true;
+    }
+
+    /**
+     * It is used to get the id with lowest priority without removing it.
+     *
+     * @return int
+     */
+    public int peek() {
+        return heap[0];
+    }
+
+    /**
+     * It is used to get the lowest priority in heap.
+     *
+     * @return long
+     */
+    public long peekPriority() {
+        return priority[heap[0]];
+    }
+
+    /**
+     * It is used to remove and return the id with lowest priority.
+     *
+     * @return int
+     */
+    public int poll() {
+        int top = heap[0];
+        removeAt(0);
+        return top;
+    }
+
+    /**
+     * It is used to remove given id from heap if present.
+     *
+     * @param id
+     * @return boolean
+     */
+    public boolean remove(int id) {
+        if (!contains(id)) {
+            return false;
+        }
+        removeAt(index[id]);
+        return true;
+    }
+
+    /**
+     * It is used to remove all the ids from heap. Capacity is retained.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            index[heap[i]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    private void removeAt(int slot) {
+        int removed = heap[slot];
+        size -= 1;
+        index[removed] = ABSENT;
+        if (slot == size) {
+            return;
+        }
+        int last = heap[size];
+        heap[slot] = last;
+        index[last] = slot;
+        if (slot > 0 && priority[last] < priority[heap[(slot - 1) / ARITY]]) {
+            siftUp(slot);
+        } else {
+            siftDown(slot);
+        }
+    }
+
+    private void siftUp(int slot) {
+        int id = heap[slot];
+        long key = priority[id];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) / ARITY;
+            int parent = heap[parentSlot];
+            if (key >= priority[parent]) {
+                break;
+            }
+            heap[slot] = parent;
+            index[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = id;
+        index[id] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int id = heap[slot];
+        long key = priority[id];
+        while (true) {
+            int firstChild = (slot * ARITY) + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            // Find the child with lowest priority
+            int lastChild = Math.min(firstChild + ARITY, size);
+            int bestSlot = firstChild;
+            long bestKey = priority[heap[firstChild]];
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                long childKey = priority[heap[child]];
+                if (childKey < bestKey) {
+                    bestKey = childKey;
+                    bestSlot = child;
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            int best = heap[bestSlot];
+            heap[slot] = best;
+            index[best] = slot;
+            slot = bestSlot;
+        }
+        heap[slot] = id;
+        index[id] = slot;
+    }
+
+    /**
+     * It is used to grow the arrays so that ids less than given capacity can be stored.
+     *
+     * @param capacity
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= index.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, index.length + (index.length >> 1));
+        int oldCapacity = index.length;
+        heap = Arrays.copyOf(heap, newCapacity);
+        priority = Arrays.copyOf(priority, newCapacity);
+        index = Arrays.copyOf(index, newCapacity);
+        Arrays.fill(index, oldCapacity, newCapacity, ABSENT);
+    }
+}
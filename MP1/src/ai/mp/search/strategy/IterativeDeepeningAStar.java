@@ -0,0 +1,248 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+
+/**
+ * It is used to implement Iterative Deepening A * (IDA *) strategy. Every iteration is depth first
+ * search which does not go past states whose f = g + h is above threshold. Next threshold is lowest
+ * f which was above threshold, so first goal found is cheapest.
+ * <pre>
+ * Search stack         - state, g, h, successors and next successor index of every depth kept in
+ *                        int arrays, so no object is created while searching
+ * Path set             - {@link PathStateSet} of states on current path, to skip successor which is
+ *                        already on it. It is sized to depth, not to state space
+ * Transposition table  - optional fixed size table of (state, g) seen in current iteration. State
+ *                        reached again with no lower g is skipped. Entries are overwritten on collision
+ * </pre>
+ * Memory grows only with depth of search and fixed size of transposition table.
+ * It works on PATH finding and PENALTY (turn cost) maze.
+ *
+ * @author rudani2
+ *
+ */
+public class IterativeDeepeningAStar extends SearchOperation {
+
+    private static final int INITIAL_DEPTH = 256;
+    private static final int EMPTY_SLOT = -1;
+
+    private final CompiledMaze maze;
+    private char[][] solutionMaze;
+    private int[] solutionPath;
+    private long nodesExpanded = 0L;
+    private long stepCost = 0L;
+    private long solutionCost = 0L;
+
+    // Search stack indexed by depth
+    private int[] stateStack;
+    private int[] costStack;
+    private long[] heuristicStack;
+    private int[] successorIndex;
+    private int[] successorCount;
+    private int[] successorStack;
+    private int[] moveCostStack;
+    /**
+     * Successors are generated into scratch buffers and then copied to stack at their depth.
+     */
+    private int[] scratchSuccessors;
+    private int[] scratchMoveCosts;
+
+    // Transposition table
+    private int[] tableStates;
+    private int[] tableCosts;
+    private int[] tableIterations;
+
+    IterativeDeepeningAStar(CompiledMaze maze) {
+        this.maze = maze;
+    }
+
+    @Override
+    public void findPath() {
+        if (Preprocessing.isPathFind()) {
+            findPath(newPathFindProblem(maze, new ManhattanHeuristic(maze)));
+        } else if (Preprocessing.isPenalty() || Preprocessing.isOurHeuristic()) {
+            // Moves are generated on the fly, so memory stays bounded by depth
+            findPath(newLatticeFreeTurnCostProblem(maze));
+        } else {
+            throw new IllegalArgumentException("IDA * supports only PATH finding and PENALTY turns");
+        }
+    }
+
+    /**
+     * It is used to run depth first iterations with growing threshold till goal state is found or
+     * every reachable state is within threshold.
+     *
+     * @param problem
+     */
+    private void findPath(SearchProblem problem) {
+        int maxSuccessorCount = problem.getMaxSuccessorCount();
+        allocateStack(INITIAL_DEPTH, maxSuccessorCount);
+        allocateTranspositionTable(SearchConfiguration.getTranspositionTableSize());
+        PathStateSet pathState = new PathStateSet(INITIAL_DEPTH);
+
+        int startState = problem.getStartState();
+        long threshold = problem.getHeuristic(startState);
+        int iteration = 0;
+        int goalDepth = MazeConstant.NO_CELL;
+        while (goalDepth == MazeConstant.NO_CELL && threshold != Long.MAX_VALUE) {
+            iteration += 1;
+            long nextThreshold = Long.MAX_VALUE;
+            long iterationExpanded = 0L;
+            int depth = 0;
+            stateStack[0] = startState;
+            costStack[0] = 0;
+            heuristicStack[0] = problem.getHeuristic(startState);
+            successorIndex[0] = MazeConstant.NO_CELL;
+            pathState.clear();
+            pathState.add(startState);
+            while (depth >= 0) {
+                int state = stateStack[depth];
+                if (successorIndex[depth] == MazeConstant.NO_CELL) {
+                    // State is visited first time in this iteration
+                    long cost = costStack[depth] + heuristicStack[depth];
+                    if (cost > threshold) {
+                        nextThreshold = Math.min(nextThreshold, cost);
+                        pathState.remove(state);
+                        depth -= 1;
+                        continue;
+                    }
+                    if (problem.isGoal(state)) {
+                        goalDepth = depth;
+                        break;
+                    }
+                    int count = problem.getSuccessors(state, scratchSuccessors, scratchMoveCosts);
+                    System.arraycopy(scratchSuccessors, 0, successorStack, depth * maxSuccessorCount, count);
+                    System.arraycopy(scratchMoveCosts, 0, moveCostStack, depth * maxSuccessorCount, count);
+                    successorCount[depth] = count;
+                    successorIndex[depth] = 0;
+                    nodesExpanded += 1;
+                    iterationExpanded += 1;
+                }
+                if (successorIndex[depth] == successorCount[depth]) {
+                    // Every successor is searched, so backtrack
+                    pathState.remove(state);
+                    depth -= 1;
+                    continue;
+                }
+                int slot = (depth * maxSuccessorCount) + successorIndex[depth];
+                successorIndex[depth] += 1;
+                int child = successorStack[slot];
+                int childCost = costStack[depth] + moveCostStack[slot];
+                if (pathState.contains(child) || isTransposition(child, childCost, iteration)) {
+                    continue;
+                }
+                if (depth + 1 == stateStack.length) {
+                    growStack(maxSuccessorCount);
+                }
+                depth += 1;
+                stateStack[depth] = child;
+                costStack[depth] = childCost;
+                heuristicStack[depth] = problem.getHeuristic(child);
+                successorIndex[depth] = MazeConstant.NO_CELL;
+                pathState.add(child);
+            }
+            System.out.println("Iteration " + iteration + " threshold " + threshold + " expanded " + iterationExpanded);
+            threshold = nextThreshold;
+        }
+        // Check if solution exist
+        if (goalDepth != MazeConstant.NO_CELL) {
+            this.solutionPath = problem.toCellPath(Arrays.copyOf(stateStack, goalDepth + 1));
+            for (int i = 1; i < solutionPath.length; i++) {
+                // Turning in place does not take a step
+                if (solutionPath[i] != solutionPath[i - 1]) {
+                    stepCost += 1;
+                }
+            }
+            this.solutionCost = costStack[goalDepth];
+        }
+    }
+
+    /**
+     * It is used to check whether state is already reached with no higher cost in current iteration.
+     * Otherwise state and cost are recorded.
+     *
+     * @param state
+     * @param cost
+     * @param iteration
+     * @return boolean
+     */
+    private boolean isTransposition(int state, int cost, int iteration) {
+        if (tableStates == null) {
+            return false;
+        }
+        int slot = (state * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(tableStates.length));
+        if (tableStates[slot] == state && tableIterations[slot] == iteration && tableCosts[slot] <= cost) {
+            return true;
+        }
+        tableStates[slot] = state;
+        tableCosts[slot] = cost;
+        tableIterations[slot] = iteration;
+        return false;
+    }
+
+    private void allocateStack(int depth, int maxSuccessorCount) {
+        stateStack = new int[depth];
+        costStack = new int[depth];
+        heuristicStack = new long[depth];
+        successorIndex = new int[depth];
+        successorCount = new int[depth];
+        successorStack = new int[depth * maxSuccessorCount];
+        moveCostStack = new int[depth * maxSuccessorCount];
+        scratchSuccessors = new int[maxSuccessorCount];
+        scratchMoveCosts = new int[maxSuccessorCount];
+    }
+
+    private void growStack(int maxSuccessorCount) {
+        int depth = stateStack.length * 2;
+        stateStack = Arrays.copyOf(stateStack, depth);
+        costStack = Arrays.copyOf(costStack, depth);
+        heuristicStack = Arrays.copyOf(heuristicStack, depth);
+        successorIndex = Arrays.copyOf(successorIndex, depth);
+        successorCount = Arrays.copyOf(successorCount, depth);
+        successorStack = Arrays.copyOf(successorStack, depth * maxSuccessorCount);
+        moveCostStack = Arrays.copyOf(moveCostStack, depth * maxSuccessorCount);
+    }
+
+    /**
+     * It is used to allocate transposition table of given size rounded up to power of two.
+     *
+     * @param size 0 to search without transposition table
+     */
+    private void allocateTranspositionTable(int size) {
+        if (size <= 0) {
+            return;
+        }
+        int slotCount = Math.max(2, Integer.highestOneBit(size - 1) << 1);
+        tableStates = new int[slotCount];
+        tableCosts = new int[slotCount];
+        tableIterations = new int[slotCount];
+        Arrays.fill(tableStates, EMPTY_SLOT);
+    }
+
+    @Override
+    public char[][] getSolutionMaze() {
+        if (solutionMaze == null) {
+            solutionMaze = maze.toSolutionMatrix(solutionPath);
+        }
+        return solutionMaze;
+    }
+
+    @Override
+    public long getStepCost() {
+        return stepCost;
+    }
+
+    @Override
+    public long getSolutionCost() {
+        return solutionCost;
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public String getSearchStrategyName() {
+        return "IDA *";
+    }
+}
@@ -0,0 +1,226 @@
+package ai.mp.search.strategy;
+
+import java.util.BitSet;
+
+/**
+ * It is used to implement Jump Point Search strategy on 4-connected uniform cost maze.
+ * It is A* search which expands only jump points. From every jump point the search jumps in
+ * straight line till it reaches
+ * <pre>
+ * Goal         - goal cell itself
+ * Forced cell  - cell whose side neighbor is open while the side neighbor of previous cell is Wall
+ * Turn cell    - only for vertical jump. Cell from which horizontal jump reaches any jump point
+ * </pre>
+ * Cells passed over by jump are never added to open list, so symmetric paths through open area
+ * are pruned. It uses manhattan as heuristic function.
+ *
+ * @author rudani2
+ *
+ */
+public class JumpPointSearch extends SearchOperation {
+
+    private static boolean isGoalReached = false;
+
+    private final CompiledMaze maze;
+    private final int width;
+    /**
+     * It holds the unpruned steps for jump point reached by moving right, left, down and up.
+     */
+    private final int[][] unprunedSteps;
+    private char[][] solutionMaze;
+    private int[] solutionPath;
+    private int goalCell;
+    private long nodesExpanded = 0L;
+    private long stepCost = 0L;
+    private long solutionCost = 0L;
+
+    JumpPointSearch(CompiledMaze maze) {
+        this.maze = maze;
+        this.width = maze.getWidth();
+        this.unprunedSteps = new int[][] { { 1, -width, width }, { -1, -width, width }
+                , { width, -1, 1 }, { -width, -1, 1 } };
+    }
+
+    @Override
+    public void findPath() {
+        if (!Preprocessing.isPathFind()) {
+            throw new IllegalArgumentException("Jump Point Search supports only PATH finding");
+        }
+        goalCell = maze.getGoalCell();
+        /**
+         * It holds the cell id of all the jump points which are yet to be expanded.
+         * It is sorted based on cost.
+         */
+        IndexedMinHeap openPosition = new IndexedMinHeap(MazeConstant.QUEUE_INITIAL_CAPACITY);
+        BitSet expandedPosition = new BitSet(maze.getCellCount());
+        int[] parent = maze.newParentArray();
+        int[] approachableCost = new int[maze.getCellCount()];
+
+        int currentPosition = maze.getStartCell();
+        parent[currentPosition] = currentPosition;
+        openPosition.offer(currentPosition, maze.getManhattanDistance(goalCell, currentPosition));
+
+        while (!openPosition.isEmpty()) {
+            currentPosition = openPosition.poll();
+            if (currentPosition == goalCell) {
+                isGoalReached = true;
+                break;
+            }
+            expandedPosition.set(currentPosition);
+            nodesExpanded += 1;
+            // Jump in every direction which is not pruned for current jump point
+            int[] directions = getUnprunedDirections(currentPosition, parent[currentPosition]);
+            for (int step : directions) {
+                int jumpPoint = (step == 1 || step == -1) ? jumpHorizontal(currentPosition, step)
+                        : jumpVertical(currentPosition, step);
+                if (jumpPoint == MazeConstant.NO_CELL || expandedPosition.get(jumpPoint)) {
+                    continue;
+                }
+                int approachedCost = approachableCost[currentPosition]
+                        + (maze.getManhattanDistance(currentPosition, jumpPoint) * MazeConstant.FORWARD_COST);
+                if (!openPosition.contains(jumpPoint) || approachedCost < approachableCost[jumpPoint]) {
+                    parent[jumpPoint] = currentPosition;
+                    approachableCost[jumpPoint] = approachedCost;
+                    openPosition.update(jumpPoint, approachedCost + maze.getManhattanDistance(goalCell, jumpPoint));
+                }
+            }
+        }
+        // Check if solution exist
+        if (isGoalReached) {
+            this.solutionPath = expandJumpPoints(buildSolutionPath(parent, currentPosition));
+            this.stepCost = solutionPath.length - 1;
+            this.solutionCost = approachableCost[currentPosition];
+        }
+    }
+
+    /**
+     * It is used to get the steps in which search has to jump from given jump point.
+     * Start position jumps in all direction. Jump point reached horizontally continues
+     * horizontally and turns up and down. Jump point reached vertically continues
+     * vertically and turns left and right.
+     *
+     * @param jumpPoint
+     * @param parentJumpPoint
+     * @return int[] cell id offset of each step
+     */
+    private int[] getUnprunedDirections(int jumpPoint, int parentJumpPoint) {
+        if (jumpPoint == parentJumpPoint) {
+            return maze.getNeighborOffsets();
+        }
+        if (maze.getRow(jumpPoint) == maze.getRow(parentJumpPoint)) {
+            return jumpPoint > parentJumpPoint ? unprunedSteps[0] : unprunedSteps[1];
+        }
+        return jumpPoint > parentJumpPoint ? unprunedSteps[2] : unprunedSteps[3];
+    }
+
+    /**
+     * It is used to jump horizontally from given cell till jump point or Wall is found.
+     *
+     * @param cell
+     * @param step +1 for right and -1 for left
+     * @return int jump point or {@link MazeConstant#NO_CELL}
+     */
+    private int jumpHorizontal(int cell, int step) {
+        while (true) {
+            cell += step;
+            if (maze.isWall(cell)) {
+                return MazeConstant.NO_CELL;
+            }
+            if (cell == goalCell) {
+                return cell;
+            }
+            // Check for forced neighbor above and below
+            if ((!maze.isWall(cell - width) && maze.isWall(cell - step - width))
+                    || (!maze.isWall(cell + width) && maze.isWall(cell - step + width))) {
+                return cell;
+            }
+        }
+    }
+
+    /**
+     * It is used to jump vertically from given cell till jump point or Wall is found.
+     * At every cell horizontal jump is checked on both side since path may turn there.
+     *
+     * @param cell
+     * @param step +width for down and -width for up
+     * @return int jump point or {@link MazeConstant#NO_CELL}
+     */
+    private int jumpVertical(int cell, int step) {
+        while (true) {
+            cell += step;
+            if (maze.isWall(cell)) {
+                return MazeConstant.NO_CELL;
+            }
+            if (cell == goalCell) {
+                return cell;
+            }
+            // Check for forced neighbor on left and right
+            if ((!maze.isWall(cell - 1) && maze.isWall(cell - 1 - step))
+                    || (!maze.isWall(cell + 1) && maze.isWall(cell + 1 - step))) {
+                return cell;
+            }
+            if (jumpHorizontal(cell, 1) != MazeConstant.NO_CELL
+                    || jumpHorizontal(cell, -1) != MazeConstant.NO_CELL) {
+                return cell;
+            }
+        }
+    }
+
+    /**
+     * It is used to fill the cells between consecutive jump points. Consecutive jump points
+     * are always in same row or same column.
+     *
+     * @param jumpPoints
+     * @return int[] cell path from start to goal
+     */
+    private int[] expandJumpPoints(int[] jumpPoints) {
+        int length = 1;
+        for (int i = 1; i < jumpPoints.length; i++) {
+            length += maze.getManhattanDistance(jumpPoints[i - 1], jumpPoints[i]);
+        }
+        int[] path = new int[length];
+        int index = 0;
+        path[index++] = jumpPoints[0];
+        for (int i = 1; i < jumpPoints.length; i++) {
+            int from = jumpPoints[i - 1];
+            int to = jumpPoints[i];
+            int step = maze.getRow(from) == maze.getRow(to) ? 1 : width;
+            if (to < from) {
+                step = -step;
+            }
+            for (int cell = from + step; cell != to; cell += step) {
+                path[index++] = cell;
+            }
+            path[index++] = to;
+        }
+        return path;
+    }
+
+    @Override
+    public char[][] getSolutionMaze() {
+        if (solutionMaze == null) {
+            solutionMaze = maze.toSolutionMatrix(solutionPath);
+        }
+        return solutionMaze;
+    }
+
+    @Override
+    public long getStepCost() {
+        return stepCost;
+    }
+
+    @Override
+    public long getSolutionCost() {
+        return solutionCost;
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public String getSearchStrategyName() {
+        return "Jump Point Search";
+    }
+}
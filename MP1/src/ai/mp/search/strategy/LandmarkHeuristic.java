@@ -0,0 +1,143 @@
+package ai.mp.search.strategy;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * It is the ALT (A *, landmarks and triangle inequality) heuristic. Maze distance from few landmark
+ * cells to every cell is computed once by parallel BFS. For any landmark L, triangle inequality gives
+ * <pre>
+ * distance(a, b) >= |distance(L, a) - distance(L, b)|
+ * </pre>
+ * so highest such bound over landmarks, and Manhattan distance, never exceeds maze distance. Unlike
+ * Manhattan distance it sees walls, so it is much tighter in twisted mazes.
+ * <pre>
+ * Landmark selection - maze is split into equal angle sectors around its center, and in every sector
+ *                      the cell reachable from start position which is farthest from center is picked
+ * distances          - distance of landmark i to cell c at index (c * landmark count) + i, so every
+ *                      landmark distance of one cell is read together
+ * </pre>
+ * Landmarks are built once and reused by every search on same maze and landmark count.
+ *
+ * @author rudani2
+ *
+ */
+public class LandmarkHeuristic implements CellHeuristic {
+
+    private static LandmarkHeuristic cachedHeuristic;
+
+    private final CompiledMaze maze;
+    private final int requestedLandmarkCount;
+    private final int[] landmarkCells;
+    private final int[] distances;
+
+    private LandmarkHeuristic(CompiledMaze maze, int landmarkCount) {
+        if ((long) maze.getCellCount() * landmarkCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maze is too large for " + landmarkCount + " landmarks");
+        }
+        this.maze = maze;
+        this.requestedLandmarkCount = landmarkCount;
+        int[] startDistance = new GoalDistanceMatrix.DistanceTask(maze, maze.getStartCell()).invoke();
+        this.landmarkCells = selectLandmarks(startDistance, landmarkCount);
+
+        // Run BFS from every landmark in parallel
+        GoalDistanceMatrix.DistanceTask[] tasks = new GoalDistanceMatrix.DistanceTask[landmarkCells.length];
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new GoalDistanceMatrix.DistanceTask(maze, landmarkCells[i]);
+            pool.execute(tasks[i]);
+        }
+        int count = landmarkCells.length;
+        this.distances = new int[maze.getCellCount() * count];
+        for (int i = 0; i < count; i++) {
+            int[] distance = tasks[i].join();
+            for (int cell = 0; cell < distance.length; cell++) {
+                distances[(cell * count) + i] = distance[cell];
+            }
+        }
+    }
+
+    /**
+     * It is used to get the landmark heuristic of given maze and landmark count. Landmarks built for
+     * previous search are reused when maze and landmark count are same.
+     *
+     * @param maze
+     * @param landmarkCount
+     * @return LandmarkHeuristic
+     */
+    static synchronized LandmarkHeuristic getInstance(CompiledMaze maze, int landmarkCount) {
+        if (cachedHeuristic == null || cachedHeuristic.maze != maze
+                || cachedHeuristic.requestedLandmarkCount != landmarkCount) {
+            long startTime = System.nanoTime();
+            cachedHeuristic = new LandmarkHeuristic(maze, landmarkCount);
+            if (SearchConfiguration.isVerbose()) {
+                System.out.println("Landmarks " + cachedHeuristic.landmarkCells.length + " built in "
+                        + ((System.nanoTime() - startTime) / 1000000L) + " ms");
+            }
+        }
+        return cachedHeuristic;
+    }
+
+    @Override
+    public long getDistance(int cellId, int otherCellId) {
+        int best = maze.getManhattanDistance(cellId, otherCellId);
+        int count = landmarkCells.length;
+        int base = cellId * count;
+        int otherBase = otherCellId * count;
+        for (int i = 0; i < count; i++) {
+            int distance = distances[base + i];
+            int otherDistance = distances[otherBase + i];
+            // Landmark is of no use for cells it can not reach
+            if (distance != GoalDistanceMatrix.UNREACHABLE && otherDistance != GoalDistanceMatrix.UNREACHABLE) {
+                best = Math.max(best, Math.abs(distance - otherDistance));
+            }
+        }
+        return best;
+    }
+
+    public int[] getLandmarkCells() {
+        return landmarkCells.clone();
+    }
+
+    /**
+     * It is used to pick farthest cell from maze center in every sector. Sector without any reachable
+     * cell gets no landmark.
+     *
+     * @param startDistance distance from start position to every cell
+     * @param sectorCount
+     * @return int[] landmark cells
+     */
+    private int[] selectLandmarks(int[] startDistance, int sectorCount) {
+        double centerRow = (maze.getRowCount() - 1) / 2.0;
+        double centerColumn = (maze.getColumnCount() - 1) / 2.0;
+        int[] sectorCell = new int[sectorCount];
+        double[] sectorSpread = new double[sectorCount];
+        for (int sector = 0; sector < sectorCount; sector++) {
+            sectorCell[sector] = MazeConstant.NO_CELL;
+        }
+        for (int cell = 0; cell < startDistance.length; cell++) {
+            if (startDistance[cell] == GoalDistanceMatrix.UNREACHABLE) {
+                continue;
+            }
+            double rowOffset = maze.getRow(cell) - centerRow;
+            double columnOffset = maze.getColumn(cell) - centerColumn;
+            double angle = Math.atan2(rowOffset, columnOffset) + Math.PI;
+            int sector = Math.min(sectorCount - 1, (int) ((angle / (2 * Math.PI)) * sectorCount));
+            double spread = (rowOffset * rowOffset) + (columnOffset * columnOffset);
+            int chosen = sectorCell[sector];
+            if (chosen == MazeConstant.NO_CELL || spread > sectorSpread[sector]
+                    || (spread == sectorSpread[sector] && startDistance[cell] > startDistance[chosen])) {
+                sectorCell[sector] = cell;
+                sectorSpread[sector] = spread;
+            }
+        }
+        int count = 0;
+        for (int cell : sectorCell) {
+            if (cell != MazeConstant.NO_CELL) {
+                sectorCell[count++] = cell;
+            }
+        }
+        int[] landmarks = new int[count];
+        System.arraycopy(sectorCell, 0, landmarks, 0, count);
+        return landmarks;
+    }
+}
@@ -1,318 +1,112 @@
 package ai.mp.search.strategy;
 
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-
 /**
- * This class is responsible to build Minimum Spanning Tree for given collection of {@link Position} and Goal position
+ * This class is responsible to build Minimum Spanning Tree over the goals remaining in goal mask, with or without a cell.
+ * Edge cost is true maze distance taken from {@link GoalDistanceMatrix}. It uses Prim algorithm over the dense distance
+ * matrix, so tree over n nodes takes O(n * n) time without building or sorting any edge list.
+ * <pre>
+ * nodes    - goal index of every node not yet in tree, packed at front of the array
+ * linkCost - cheapest edge from node to any node already in tree
+ * </pre>
+ * Buffers are reused, so single instance is used for every MST built during a search.
  * 
  * @author rudani2
  *
  */
 public class MST {
 
-    private final Set<Position> goalSet;
-    private final Position startPosition;
-    private List<Edge> edges;
-    private Map<Position, Subset> subsets = new HashMap<Position, Subset>();
+    private final GoalDistanceMatrix distances;
+    private final GoalIndex goals;
+    private final int[] nodes;
+    private final int[] linkCost;
 
-    MST(Position startPosition, Set<Position> goalSet) {
-        this.startPosition = startPosition;
-        this.goalSet = goalSet;
-        edges = new LinkedList<Edge>();
-        // initialize subset
-        initializeSubset();
+    MST(GoalDistanceMatrix distances) {
+        this.distances = distances;
+        this.goals = distances.getGoalIndex();
+        this.nodes = new int[goals.getGoalCount()];
+        this.linkCost = new int[goals.getGoalCount()];
     }
 
     /**
-     * It is used to initialize the subset with start position and all goal position. By default each subset is of 
-     * size 1.
-     */
-    private void initializeSubset() {
-        // Reset the visited states for start position
-        startPosition.setVisited(false);
-        // Add the start position
-        subsets.put(startPosition, new Subset(startPosition, 0));
-        Iterator<Position> goals = goalSet.iterator();
-        while (goals.hasNext()) {
-            Position nextGoal = goals.next();
-            // Reset the visited states
-            nextGoal.setVisited(false);
-            subsets.put(nextGoal, new Subset(nextGoal, 0));
-        }
-    }
-
-    public long buildMST() {
-        // Indicate total edge cost
-        long edgeCost = 0L;
-        try {
-            // Indicate we have cover all the edges
-            long edgeCount = 0L;
-            // Calculate the edge cost between every goals and start position
-            calculateEdgeCost();
-            // debug
-            //System.out.println("B4 sort " + edges);
-            // Sort the edge as per weight
-            Collections.sort(edges, new EdgeComparator());
-            //System.out.println(edges);
-            //System.out.println("Edge size " + edges.size());
-            //System.out.println(subsets);
-            // For every edge build the MST
-            Iterator<Edge> edge = edges.iterator();
-            while (edge.hasNext()) {
-                Edge singleEdge = edge.next();
-                Position position1 = find(singleEdge.getSource());
-                Position position2 = find(singleEdge.getDestination());
-                if (position1 == null || position2 == null) {
-                    throw new IllegalArgumentException("Not able to find parent. Missing edge in edge list");
-                }
-                // Check if both are equal. If not equal means there is no cycle
-                if (!position1.equals(position2) || (singleEdge.getSource().equals(singleEdge.getDestination())) ) {
-                    //System.out.println("Position 1 " + position1);
-                    //System.out.println("Position 2 " + position2);
-                    edgeCost += singleEdge.getWeight();
-                    edgeCount += 1;
-                    union(position1,position2);
-                }
-                // debug
-                //System.out.println("Edge count " + edgeCount);
-                //System.out.println("Goal count " + goalSet.size());
-                // Check if all edges are visited
-                if (edgeCount == goalSet.size()) {
-                    //System.out.println("Edge cost " + edgeCost);
-                    break;
-                }
-            }
-        } catch (IllegalArgumentException e) {
-            System.out.println(e.getMessage());
-        }
-        return edgeCost;
-    }
-
-    /** 
-     * A utility function to find set of an element node using path compression technique.
+     * It is used to build MST over given start cell and every goal set in goal mask.
      * 
-     * @param node
+     * @param startCell
+     * @param goalMask
+     * @return long total edge cost of MST
      */
-    private Position find(Position node) {
-        // find root and make root as parent of node (path compression)
-        if (subsets.containsKey(node)) {
-            if (!subsets.get(node).getParent().equals(node)) {
-                Position newParent = find(subsets.get(node).getParent());
-                subsets.get(node).setParent(newParent);
-            }
-            return subsets.get(node).getParent();
+    public long buildMST(int startCell, long[] goalMask) {
+        int nodeCount = collectGoals(goalMask);
+        // Tree starts from the cell, so every goal is linked by its distance to the cell
+        for (int node = 0; node < nodeCount; node++) {
+            linkCost[node] = distances.getCellDistance(nodes[node], startCell);
         }
-        return null;
+        return growTree(nodeCount);
     }
 
     /**
-     * A function that does union of two sets X and Y using rank value.
-     * 
-     * @param X
-     * @param Y
+     * It is used to build MST over every goal set in goal mask. It does not depend on
+     * position of maze state, so its weight can be cached against goal mask.
+     *
+     * @param goalMask
+     * @return long total edge cost of MST
      */
-    private void union(Position X, Position Y) {
-
-        Position xRoot = find(X);
-        Position yRoot = find(Y);
-
-        // Attach smaller rank tree under root of higher rank tree
-        if (subsets.get(xRoot).getRank() < subsets.get(yRoot).getRank()) {
-            subsets.get(xRoot).setParent(yRoot);
-        } else if (subsets.get(xRoot).getRank() > subsets.get(yRoot).getRank()) {
-            subsets.get(yRoot).setParent(xRoot);
-        } else {
-            // If ranks are same, then make one as root and increment its rank by one
-            subsets.get(yRoot).setParent(xRoot);
-            subsets.get(xRoot).incrementRank();
+    public long buildMST(long[] goalMask) {
+        int nodeCount = collectGoals(goalMask);
+        if (nodeCount == 0) {
+            return 0L;
         }
+        // Tree starts from the last goal, so every other goal is linked by its distance to it
+        nodeCount -= 1;
+        for (int node = 0; node < nodeCount; node++) {
+            linkCost[node] = distances.getDistance(nodes[nodeCount], nodes[node]);
+        }
+        return growTree(nodeCount);
     }
 
     /**
-     * It is used to calculate edge cost for given positions.
+     * It is used to collect remaining goals as nodes.
+     *
+     * @param goalMask
+     * @return int node count
      */
-    private void calculateEdgeCost() {
-        // Calculate the edge cost between every goals and start position
-        Iterator<Position> goals = goalSet.iterator();
-        while (goals.hasNext()) {
-            Position nextGoal = goals.next();
-            // If goal and start position is same so don't add into edge list
-            edges.add( new Edge( startPosition, nextGoal, getEdgeCost(startPosition, nextGoal) ) );
-            Iterator<Position> otherGoals = goalSet.iterator();
-            while (otherGoals.hasNext()) {
-                Position remainingGoal = otherGoals.next();
-                // Check if it is already visited or it represents itself
-                if (!nextGoal.equals(remainingGoal) && !remainingGoal.isVisited()) {
-                    edges.add( new Edge( nextGoal, remainingGoal, getEdgeCost(nextGoal, remainingGoal) ) );
-                }
+    private int collectGoals(long[] goalMask) {
+        int nodeCount = 0;
+        for (int goal = 0; goal < goals.getGoalCount(); goal++) {
+            if (GoalIndex.isSet(goalMask, goal)) {
+                nodes[nodeCount++] = goal;
             }
-            // Mark the goal as visited or else we will get bidirectional edge
-            nextGoal.setVisited(true);
         }
+        return nodeCount;
     }
 
     /**
-     * It is used to calculate heuristic value based on Manhattan distance between goal state and current state.
-     * Manhattan distance formula is |x1 - x2| + |y1 - y2|
-     * 
-     * @param goalState
-     * @param currentPosition
-     * @return long
+     * It is used to add nodes to tree one at a time, always the node with cheapest link. Added node is
+     * swapped out of the front of node array and links of nodes left are lowered through it.
+     *
+     * @param nodeCount number of nodes not in tree, with their link cost set
+     * @return long total edge cost of MST
      */
-    private long getEdgeCost(Position goalState, Position currentPosition) {
-        return ( ( Math.abs(goalState.getX() - currentPosition.getX()) )
-                + ( Math.abs(goalState.getY() - currentPosition.getY()) ) );
-    }
-}
-
-/**
- * This class represents the edge between different positions. The edge has weight cost.
- * The weight cost is calculated based on manhattan distance.
- *
- */
-class Edge
-{
-    private final Position source;
-    private final Position destination;
-    private final long weight;
-
-    Edge(Position source, Position destination, long weight) {
-        this.source = source;
-        this.destination = destination;
-        this.weight = weight;
-    }
-
-    @Override
-    public String toString() {
-        return "[source=" + source + ", destination=" + destination
-                + ", weight=" + weight + "]";
-    }
-
-    @Override
-    public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result
-                + ((destination == null) ? 0 : destination.hashCode());
-        result = prime * result + ((source == null) ? 0 : source.hashCode());
-        return result;
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-        if (this == obj)
-            return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
-            return false;
-        Edge other = (Edge) obj;
-        if (destination == null) {
-            if (other.destination != null)
-                return false;
-        } else if (!destination.equals(other.destination))
-            return false;
-        if (source == null) {
-            if (other.source != null)
-                return false;
-        } else if (!source.equals(other.source))
-            return false;
-        return true;
-    }
-
-    public Position getSource() {
-        return source;
-    }
-
-    public Position getDestination() {
-        return destination;
-    }
-
-    public long getWeight() {
-        return weight;
-    }
-
-}
-
-/**
- * It represents the subset formed during process of building Minimum spanning tree.
- * It helps to detect the cycle in building MST.
- * 
- */
-class Subset {
-
-    private Position parent;
-    long rank;
-
-    Subset(Position parent, long rank) {
-        this.parent = parent;
-        this.rank = rank;
-    }
-
-    @Override
-    public String toString() {
-        return "Subset [parent=" + parent + ", rank=" + rank + "]";
-    }
-
-    @Override
-    public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((parent == null) ? 0 : parent.hashCode());
-        return result;
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-        if (this == obj)
-            return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
-            return false;
-        Subset other = (Subset) obj;
-        if (parent == null) {
-            if (other.parent != null)
-                return false;
-        } else if (!parent.equals(other.parent))
-            return false;
-        return true;
-    }
-
-    public Position getParent() {
-        return parent;
-    }
-    public void setParent(Position parent) {
-        this.parent = parent;
-    }
-    public long getRank() {
-        return rank;
-    }
-    public void incrementRank() {
-        this.rank += 1;
+    private long growTree(int nodeCount) {
+        long edgeCost = 0L;
+        while (nodeCount > 0) {
+            int cheapest = 0;
+            for (int node = 1; node < nodeCount; node++) {
+                if (linkCost[node] < linkCost[cheapest]) {
+                    cheapest = node;
+                }
+            }
+            int goal = nodes[cheapest];
+            edgeCost += linkCost[cheapest];
+            nodeCount -= 1;
+            nodes[cheapest] = nodes[nodeCount];
+            linkCost[cheapest] = linkCost[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                int distance = distances.getDistance(goal, nodes[node]);
+                if (distance < linkCost[node]) {
+                    linkCost[node] = distance;
+                }
+            }
+        }
+        return edgeCost;
     }
 }
-
-/**
- * It is used to compare two different edges based on weight. The weight is calculated using Manhattan distance
- *
- */
-class EdgeComparator implements Comparator<Edge>
-{
-    @Override
-    public int compare(Edge edge1, Edge edge2)
-    {
-        if (edge1.getWeight() < edge2.getWeight())
-            return -1;
-        if (edge1.getWeight() > edge2.getWeight())
-            return 1;
-        return 0;
-    }
-}
\ No newline at end of file
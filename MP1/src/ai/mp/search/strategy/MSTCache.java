@@ -0,0 +1,165 @@
+package ai.mp.search.strategy;
+
+/**
+ * It is used to cache the MST weight of remaining goals against remaining goal mask. MST over goals
+ * does not depend on the cell of maze state, so every maze state with same remaining goals shares
+ * the entry. Cache holds bounded number of entries and evicts with CLOCK (second chance) policy.
+ * <pre>
+ * keys        - goal mask of entry i at index [i * wordCount, (i + 1) * wordCount)
+ * weights     - MST weight of entry i
+ * referenced  - set on every hit, cleared when clock hand passes entry i
+ * slots       - linear probing hash table holding (entry + 1), 0 is empty slot
+ * </pre>
+ * Hit and miss counters are kept so that cache size can be tuned.
+ *
+ * @author rudani2
+ *
+ */
+public class MSTCache {
+
+    public static final long MISS = -1L;
+    private static final int EMPTY_SLOT = 0;
+
+    private final int wordCount;
+    private final int capacity;
+    private final long[] keys;
+    private final long[] weights;
+    private final boolean[] referenced;
+    private final int[] entrySlot;
+    private final int[] slots;
+    private final int slotMask;
+    private int size = 0;
+    private int clockHand = 0;
+    private long hits = 0L;
+    private long misses = 0L;
+
+    MSTCache(int wordCount, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("MST cache size must be positive");
+        }
+        this.wordCount = wordCount;
+        this.capacity = capacity;
+        this.keys = new long[capacity * wordCount];
+        this.weights = new long[capacity];
+        this.referenced = new boolean[capacity];
+        this.entrySlot = new int[capacity];
+        // Keep load factor below half. Slot count is power of two
+        this.slots = new int[Integer.highestOneBit(capacity) << 2];
+        this.slotMask = slots.length - 1;
+    }
+
+    /**
+     * It is used to get MST weight cached for given goal mask.
+     *
+     * @param goalMask
+     * @return long weight or {@link #MISS}
+     */
+    public long get(long[] goalMask) {
+        int slot = hash(goalMask, 0) & slotMask;
+        while (slots[slot] != EMPTY_SLOT) {
+            int entry = slots[slot] - 1;
+            if (isSameMask(entry, goalMask)) {
+                referenced[entry] = true;
+                hits += 1;
+                return weights[entry];
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        misses += 1;
+        return MISS;
+    }
+
+    /**
+     * It is used to cache MST weight of goal mask which is not in cache. If cache is full then
+     * entry not referenced since clock hand last passed it is evicted.
+     *
+     * @param goalMask
+     * @param weight
+     */
+    public void put(long[] goalMask, long weight) {
+        int entry;
+        if (size < capacity) {
+            entry = size++;
+        } else {
+            while (referenced[clockHand]) {
+                referenced[clockHand] = false;
+                clockHand = (clockHand + 1) % capacity;
+            }
+            entry = clockHand;
+            clockHand = (clockHand + 1) % capacity;
+            removeSlot(entrySlot[entry]);
+        }
+        System.arraycopy(goalMask, 0, keys, entry * wordCount, wordCount);
+        weights[entry] = weight;
+        referenced[entry] = false;
+        int slot = hash(goalMask, 0) & slotMask;
+        while (slots[slot] != EMPTY_SLOT) {
+            slot = (slot + 1) & slotMask;
+        }
+        slots[slot] = entry + 1;
+        entrySlot[entry] = slot;
+    }
+
+    /**
+     * It is used to empty the given slot. Following entries of same probe sequence are shifted
+     * back so that lookup never stops at the emptied slot.
+     *
+     * @param slot
+     */
+    private void removeSlot(int slot) {
+        slots[slot] = EMPTY_SLOT;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & slotMask;
+            if (slots[next] == EMPTY_SLOT) {
+                return;
+            }
+            int entry = slots[next] - 1;
+            int home = hash(keys, entry * wordCount) & slotMask;
+            // Entry stays if its home slot lies cyclically in (slot, next]
+            boolean isInRange = slot <= next ? (slot < home && home <= next) : (slot < home || home <= next);
+            if (!isInRange) {
+                slots[slot] = slots[next];
+                entrySlot[entry] = slot;
+                slots[next] = EMPTY_SLOT;
+                slot = next;
+            }
+        }
+    }
+
+    private boolean isSameMask(int entry, long[] goalMask) {
+        int offset = entry * wordCount;
+        for (int word = 0; word < wordCount; word++) {
+            if (keys[offset + word] != goalMask[word]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int hash(long[] mask, int offset) {
+        long hash = 0x9E3779B97F4A7C15L;
+        for (int word = 0; word < wordCount; word++) {
+            hash = (hash ^ mask[offset + word]) * 0xC2B2AE3D27D4EB4FL;
+        }
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "MSTCache [size=" + size + ", capacity=" + capacity + ", hits=" + hits
+                + ", misses=" + misses + "]";
+    }
+}
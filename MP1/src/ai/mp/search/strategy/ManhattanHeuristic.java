@@ -0,0 +1,22 @@
+package ai.mp.search.strategy;
+
+/**
+ * It is the heuristic which estimates maze distance by Manhattan distance.
+ * Manhattan distance formula is |x1 - x2| + |y1 - y2|
+ *
+ * @author rudani2
+ *
+ */
+class ManhattanHeuristic implements CellHeuristic {
+
+    private final CompiledMaze maze;
+
+    ManhattanHeuristic(CompiledMaze maze) {
+        this.maze = maze;
+    }
+
+    @Override
+    public long getDistance(int cellId, int otherCellId) {
+        return maze.getManhattanDistance(cellId, otherCellId);
+    }
+}
@@ -13,17 +13,26 @@ public class MazeConstant {
             + "1. BFS (Breath-first search)\n"
             + "2. DFS (Depth-first search)\n"
             + "3. Greedy best-first search\n"
-            + "4. A* search";
+            + "4. A* search\n"
+            + "5. Jump Point Search (PATH finding only)\n"
+            + "6. Bidirectional BFS (PATH finding only)\n"
+            + "7. Bidirectional A* search (PATH finding only)\n"
+            + "8. Focal search (PATH finding and Multiple GOAL only)\n"
+            + "9. Anytime Repairing A* search (PATH finding and Multiple GOAL only)\n"
+            + "10. Iterative deepening A* search (PATH finding and PENALTY turns only)\n"
+            + "11. Simplified memory bounded A* search (PATH finding and Multiple GOAL only)\n"
+            + "12. Hierarchical path finding A* search (PATH finding only)\n"
+            + "13. D* Lite incremental search (PATH finding only)";
 
     public static final String SEARCH_WITH_ADDITIONAL_OPTION = "Please select additional option from following list by "
         + "typing the number corresponding to it\n"
         + "1. Include PENALTY turns \n"
         + "2. Play with GHOST \n"
         + "3. Multiple GOAL state \n"
-        + "4. Penalty with our heuristic \n"
+        + "4. Penalty with our heuristic (exact turn cost database) \n"
         + "5. PATH finding";
 
-    public static final int EXPECTED_USER_SEARCH_TYPE_INPUT_COUNT = 4;
+    public static final int EXPECTED_USER_SEARCH_TYPE_INPUT_COUNT = 13;
     public static final int EXPECTED_USER_ADDITIONAL_INPUT_COUNT = 5;
     public static final int WALL_MARKER = -1;
     public static final int START_POSITION_MARKER = 0;
@@ -41,5 +50,19 @@ public class MazeConstant {
     public static final int FORWARD_COST = 1;
     public static final int TURN_COST = 2;
     public static final int DEFAULT_PENALTY = 0;
+    public static final int NO_CELL = -1;
+    public static final int DEFAULT_MST_CACHE_SIZE = 1 << 16;
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000L;
+    public static final double DEFAULT_WEIGHT = 1.0;
+    public static final double DEFAULT_FOCAL_EPSILON = 0.0;
+    public static final double DEFAULT_INITIAL_WEIGHT = 3.0;
+    public static final double DEFAULT_WEIGHT_STEP = 0.5;
+    public static final int DEFAULT_NODE_BUDGET = 1 << 18;
+    public static final int DEFAULT_CLUSTER_SIZE = 10;
+    public static final int DEFAULT_LANDMARK_COUNT = 8;
+    /**
+     * It is the fixed point scale of weighted A * priority.
+     */
+    public static final long WEIGHT_SCALE = 1024L;
 
 }
@@ -0,0 +1,124 @@
+package ai.mp.search.strategy;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * It is used to load the maze file directly into {@link CompiledMaze}. The file is memory mapped
+ * and parsed in single pass byte by byte.
+ * <pre>
+ * Row width  - number of characters before first new line (carriage return is ignored)
+ * Row count  - derived from file size and row width since every row has same width
+ * </pre>
+ * Start, goal and ghost cells are collected by compiled maze while cells are populated.
+ *
+ * @author rudani2
+ *
+ */
+class MazeLoader {
+
+    /**
+     * It is the largest region mapped at once. Bigger files are mapped region by region.
+     */
+    private static final long MAX_MAPPED_REGION = Integer.MAX_VALUE;
+
+    private MazeLoader() {
+    }
+
+    /**
+     * It is used to memory map the maze file and compile it.
+     *
+     * @param file
+     * @param isVerbose print every row of maze while it is loaded
+     * @return CompiledMaze
+     * @throws IOException
+     */
+    static CompiledMaze load(String file, boolean isVerbose) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize == 0) {
+                throw new IllegalArgumentException("Maze file " + file + " is empty");
+            }
+            CompiledMaze maze = null;
+            StringBuilder verboseRow = isVerbose ? new StringBuilder() : null;
+            int row = 0;
+            int column = 0;
+            long regionStart = 0L;
+            while (regionStart < fileSize) {
+                long regionSize = Math.min(MAX_MAPPED_REGION, fileSize - regionStart);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionSize);
+                if (maze == null) {
+                    maze = createMaze(region, fileSize);
+                }
+                int limit = region.limit();
+                for (int i = 0; i < limit; i++) {
+                    byte ch = region.get(i);
+                    if (ch == '\n') {
+                        // Blank line does not make a row
+                        if (column > 0) {
+                            row += 1;
+                            column = 0;
+                            printRow(verboseRow);
+                        }
+                    } else if (ch != '\r') {
+                        if (row >= maze.getRowCount() || column >= maze.getColumnCount()) {
+                            throw new IllegalArgumentException("Every row of maze must be "
+                                    + maze.getColumnCount() + " characters wide. Found wider row " + (row + 1));
+                        }
+                        maze.setCell(row, column++, (char) ch);
+                        if (verboseRow != null) {
+                            verboseRow.append((char) ch);
+                        }
+                    }
+                }
+                regionStart += regionSize;
+            }
+            printRow(verboseRow);
+            return maze;
+        }
+    }
+
+    /**
+     * It is used to detect row width from first new line and create compiled maze
+     * with enough rows for the whole file.
+     *
+     * @param region first mapped region of file
+     * @param fileSize
+     * @return CompiledMaze
+     */
+    private static CompiledMaze createMaze(MappedByteBuffer region, long fileSize) {
+        int limit = region.limit();
+        int columnCount = 0;
+        int lineSeparatorLength = 0;
+        while (columnCount < limit && region.get(columnCount) != '\n') {
+            columnCount += 1;
+        }
+        if (columnCount < limit) {
+            lineSeparatorLength = 1;
+            if (columnCount > 0 && region.get(columnCount - 1) == '\r') {
+                columnCount -= 1;
+                lineSeparatorLength = 2;
+            }
+        }
+        long rowLength = columnCount + lineSeparatorLength;
+        long rowCount = fileSize / rowLength;
+        // Last row may not end with new line
+        if ((fileSize % rowLength) != 0) {
+            rowCount += 1;
+        }
+        if (((rowCount + 2) * (columnCount + 2)) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maze of " + rowCount + " x " + columnCount + " is too large");
+        }
+        return new CompiledMaze((int) rowCount, columnCount);
+    }
+
+    private static void printRow(StringBuilder verboseRow) {
+        if (verboseRow != null && verboseRow.length() > 0) {
+            System.out.println(verboseRow);
+            verboseRow.setLength(0);
+        }
+    }
+}
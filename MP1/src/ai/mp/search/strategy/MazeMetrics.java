@@ -11,17 +11,35 @@ public class MazeMetrics {
     private final long stepCost;
     private final long solutionCost;
     private final long penalty;
+    /**
+     * It is the bound on solution cost as multiple of cheapest solution cost. 1 means cheapest solution.
+     */
+    private final double weight;
+    /**
+     * It is the most search nodes held in memory at once, or 0 when search does not bound its nodes.
+     */
+    private final int peakNodeCount;
 
     MazeMetrics(long stepCost, long solutionCost, long penalty) {
+        this(stepCost, solutionCost, penalty, 1.0);
+    }
+
+    MazeMetrics(long stepCost, long solutionCost, long penalty, double weight) {
+        this(stepCost, solutionCost, penalty, weight, 0);
+    }
+
+    MazeMetrics(long stepCost, long solutionCost, long penalty, double weight, int peakNodeCount) {
         this.stepCost = stepCost;
         this.solutionCost = solutionCost;
         this.penalty = penalty;
+        this.weight = weight;
+        this.peakNodeCount = peakNodeCount;
     }
 
     @Override
     public String toString() {
         return "MazeMetrics [stepCost=" + stepCost + ", solutionCost="
-                + solutionCost + "]";
+                + solutionCost + ", weight=" + weight + ", peakNodeCount=" + peakNodeCount + "]";
     }
 
     public long getStepCost() {
@@ -36,4 +54,12 @@ public class MazeMetrics {
         return penalty;
     }
 
+    public double getWeight() {
+        return weight;
+    }
+
+    public int getPeakNodeCount() {
+        return peakNodeCount;
+    }
+
 }
@@ -10,6 +10,7 @@ import java.util.Scanner;
  * 2. Type of Search strategy
  * 3. Select the additional option from given list to run selected search strategies with additional options
  * </pre>
+ * Maze file name can be followed by optional settings. See {@link SearchConfiguration}
  * 
  * @author rudani2
  *
@@ -20,16 +21,18 @@ public class MazeSearch {
 
     public static void main(String[] args) {
         // Validate if file name is passed as an argument
-        if (args.length != 1) {
+        if (args.length < 1) {
             printUsage();
         }
         String mazePattern = args[0];
         try (Scanner input = new Scanner ( System.in )) {
+            // Remaining arguments are optional settings
+            SearchConfiguration.parseArguments(args, 1);
             int totalUserEnteredInput = 0;
             // Get the type of search strategy
             System.out.println(MazeConstant.SEARCH_STRATEGY);
             int searchStrategyChoice = input.nextInt();
-            if (isValidate(searchStrategyChoice)) {
+            if (isValidate(searchStrategyChoice, MazeConstant.EXPECTED_USER_SEARCH_TYPE_INPUT_COUNT)) {
                 totalUserEnteredInput += 1;
             } else {
                 throw new IllegalArgumentException("Please enter valid search startegy");
@@ -39,7 +42,7 @@ public class MazeSearch {
             System.out.println(MazeConstant.SEARCH_WITH_ADDITIONAL_OPTION);
             int searchStrategyWithAdditionalParameter = input.nextInt();
             System.out.println("User entered searchStrategyWithAdditionalParameter " + searchStrategyWithAdditionalParameter);
-            if (isValidate(searchStrategyWithAdditionalParameter)) {
+            if (isValidate(searchStrategyWithAdditionalParameter, MazeConstant.EXPECTED_USER_ADDITIONAL_INPUT_COUNT)) {
                 totalUserEnteredInput += 1;
             } else {
                 throw new IllegalArgumentException("Please enter valid additional options");
@@ -62,6 +65,7 @@ public class MazeSearch {
             System.out.println("Step cost :" + searchStrategy.getStepCost());
             System.out.println("Nodes expanded :" + searchStrategy.getNodesExpanded());
             System.out.println("Solution Cost :" + searchStrategy.getSolutionCost());
+            System.out.println(searchStrategy.getMetrics());
         } catch (Throwable t) {
             System.out.println(t.getMessage());
             System.exit(-1);
@@ -73,20 +77,20 @@ public class MazeSearch {
      */
     private static void printUsage() {
         String usage = "Please enter the following argument. \n"
-                + "1. File name which contain Maze \n"
+                + "1. File name which contain Maze followed by optional settings (--verbose) \n"
                 + "2. Select the type of Search startegy from the displayed list \n"
                 + "3. Select the additional option from displayed list to run with selected search strategy";
         System.out.println(usage);
     }
 
     /**
-     * It is used to validate the user input. User input must be in range from 1 to 4 (inclusive).
+     * It is used to validate the user input. User input must be in range from 1 to number of displayed choices (inclusive).
      * @param userInput
+     * @param choiceCount
      * @return boolean
      */
-    private static boolean isValidate(int userInput) {
-        if ( (userInput > 0 && userInput <= MazeConstant.EXPECTED_USER_SEARCH_TYPE_INPUT_COUNT) 
-        || (userInput > 0 && userInput <= MazeConstant.EXPECTED_USER_ADDITIONAL_INPUT_COUNT) ) {
+    private static boolean isValidate(int userInput, int choiceCount) {
+        if (userInput > 0 && userInput <= choiceCount) {
             return true;
         }
         return false;
@@ -95,20 +99,43 @@ public class MazeSearch {
     private static void delegateToRespectiveSearchStrategy(int userInput) throws IllegalArgumentException {
         switch (userInput) {
             case 1:
-                searchStrategy = new BFS(Preprocessing.getPreprocessedMaze(),
-                                        Preprocessing.getSolutionMatrix());
+                searchStrategy = new BFS(Preprocessing.getCompiledMaze());
                 break;
             case 2:
-                searchStrategy = new DFS(Preprocessing.getPreprocessedMaze(),
-                                        Preprocessing.getSolutionMatrix());
+                searchStrategy = new DFS(Preprocessing.getCompiledMaze());
                 break;
             case 3:
-                searchStrategy = new GreedyBestFirstSearch(Preprocessing.getPreprocessedMaze(),
-                                        Preprocessing.getSolutionMatrix());
+                searchStrategy = new GreedyBestFirstSearch(Preprocessing.getCompiledMaze());
                 break;
             case 4:
-                searchStrategy = new AStar(Preprocessing.getPreprocessedMaze(),
-                                        Preprocessing.getSolutionMatrix());
+                searchStrategy = new AStar(Preprocessing.getCompiledMaze());
+                break;
+            case 5:
+                searchStrategy = new JumpPointSearch(Preprocessing.getCompiledMaze());
+                break;
+            case 6:
+                searchStrategy = new BidirectionalBFS(Preprocessing.getCompiledMaze());
+                break;
+            case 7:
+                searchStrategy = new BidirectionalAStar(Preprocessing.getCompiledMaze());
+                break;
+            case 8:
+                searchStrategy = new FocalSearch(Preprocessing.getCompiledMaze());
+                break;
+            case 9:
+                searchStrategy = new AnytimeRepairingAStar(Preprocessing.getCompiledMaze());
+                break;
+            case 10:
+                searchStrategy = new IterativeDeepeningAStar(Preprocessing.getCompiledMaze());
+                break;
+            case 11:
+                searchStrategy = new SimplifiedMemoryBoundedAStar(Preprocessing.getCompiledMaze());
+                break;
+            case 12:
+                searchStrategy = new HierarchicalPathFinding(Preprocessing.getCompiledMaze());
+                break;
+            case 13:
+                searchStrategy = new DStarLite(Preprocessing.getCompiledMaze());
                 break;
             default :
                 System.out.println("Wrong choice!!!");
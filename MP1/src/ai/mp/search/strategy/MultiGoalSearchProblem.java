@@ -0,0 +1,165 @@
+package ai.mp.search.strategy;
+
+/**
+ * It is the problem of covering every goal of maze. Maze state is packed as (cell id, remaining goal
+ * mask) in {@link MultiGoalStateTable}. Goal is removed from mask of state which is on that goal, and
+ * state with empty mask is goal state.
+ * Maze distances are precomputed by {@link GoalDistanceMatrix}. Heuristic is one of
+ * <pre>
+ * double-mst  - twice the MST weight over cell of state and remaining goals. It may overestimate, so path
+ *               found is short but not always cheapest, and it is used by A * search by default
+ * nearest-mst - maze distance to nearest remaining goal plus MST weight of remaining goals. It never
+ *               overestimates. MST weight of goals does not depend on cell, so it is looked up in
+ *               {@link MSTCache} and built only on cache miss
+ * </pre>
+ *
+ * @author rudani2
+ *
+ */
+class MultiGoalSearchProblem implements SearchProblem {
+
+    private final CompiledMaze maze;
+    private final GoalIndex goals;
+    private final GoalDistanceMatrix distances;
+    private final MultiGoalStateTable mazeStates;
+    private final MST spanningTree;
+    private final MSTCache mstCache;
+    private final boolean isDoubleMST;
+    private final int startState;
+    private final long[] goalMask;
+    private final long[] childGoalMask;
+
+    /**
+     * It is used to create problem with given heuristic, one of {@link SearchConfiguration#DOUBLE_MST_HEURISTIC}
+     * and {@link SearchConfiguration#NEAREST_MST_HEURISTIC}.
+     *
+     * @param maze
+     * @param heuristic
+     */
+    MultiGoalSearchProblem(CompiledMaze maze, String heuristic) {
+        this.maze = maze;
+        this.isDoubleMST = SearchConfiguration.DOUBLE_MST_HEURISTIC.equals(heuristic);
+        this.goals = new GoalIndex(maze.getGoalCells());
+        this.distances = new GoalDistanceMatrix(maze, goals);
+        this.mazeStates = new MultiGoalStateTable(goals.getWordCount());
+        this.spanningTree = new MST(distances);
+        // Double MST is built over cell of state, so its weight is never reused
+        this.mstCache = isDoubleMST ? null
+                : new MSTCache(goals.getWordCount(), SearchConfiguration.getMstCacheSize());
+        this.goalMask = goals.newFullMask();
+        this.childGoalMask = new long[goals.getWordCount()];
+        // Goal under start position is covered before moving
+        int startCell = maze.getStartCell();
+        clearGoal(goalMask, startCell);
+        this.startState = mazeStates.getId(startCell, goalMask);
+    }
+
+    /**
+     * It is used to check whether every goal can be reached from start position.
+     *
+     * @return boolean
+     */
+    public boolean areGoalsReachable() {
+        return distances.areGoalsReachable();
+    }
+
+    @Override
+    public int getStartState() {
+        return startState;
+    }
+
+    @Override
+    public boolean isGoal(int state) {
+        mazeStates.copyMask(state, goalMask);
+        return GoalIndex.isEmpty(goalMask);
+    }
+
+    @Override
+    public int getSuccessors(int state, int[] successors, int[] costs) {
+        mazeStates.copyMask(state, goalMask);
+        int cell = mazeStates.getCell(state);
+        int count = 0;
+        for (int offset : maze.getNeighborOffsets()) {
+            int childCell = cell + offset;
+            if (maze.isWall(childCell)) {
+                continue;
+            }
+            System.arraycopy(goalMask, 0, childGoalMask, 0, childGoalMask.length);
+            clearGoal(childGoalMask, childCell);
+            successors[count] = mazeStates.getId(childCell, childGoalMask);
+            costs[count++] = MazeConstant.FORWARD_COST;
+        }
+        return count;
+    }
+
+    @Override
+    public int getMaxSuccessorCount() {
+        return maze.getNeighborOffsets().length;
+    }
+
+    /**
+     * It is twice the MST weight over cell and remaining goals for double-mst, which may overestimate.
+     * For nearest-mst, any path covering remaining goals has to reach nearest goal first and then connect
+     * all the goals, so distance to nearest goal plus MST weight of remaining goals never overestimate.
+     */
+    @Override
+    public long getHeuristic(int state) {
+        mazeStates.copyMask(state, goalMask);
+        int cell = mazeStates.getCell(state);
+        if (isDoubleMST) {
+            return 2 * spanningTree.buildMST(cell, goalMask);
+        }
+        long nearestGoalCost = Long.MAX_VALUE;
+        for (int goal = 0; goal < goals.getGoalCount(); goal++) {
+            if (GoalIndex.isSet(goalMask, goal)) {
+                nearestGoalCost = Math.min(nearestGoalCost, distances.getCellDistance(goal, cell));
+            }
+        }
+        if (nearestGoalCost == Long.MAX_VALUE) {
+            return 0L;
+        }
+        long mstCost = mstCache.get(goalMask);
+        if (mstCost == MSTCache.MISS) {
+            mstCost = spanningTree.buildMST(goalMask);
+            mstCache.put(goalMask, mstCost);
+        }
+        return nearestGoalCost + mstCost;
+    }
+
+    @Override
+    public int getCell(int state) {
+        return mazeStates.getCell(state);
+    }
+
+    @Override
+    public int getStateCount() {
+        return mazeStates.size();
+    }
+
+    @Override
+    public int[] getGoalOrder(int[] cellPath) {
+        return distances.getGoalOrder(cellPath);
+    }
+
+    /**
+     * It is used to get the cache of MST weight over remaining goals.
+     *
+     * @return MSTCache or null for double-mst heuristic, which does not use it
+     */
+    public MSTCache getMSTCache() {
+        return mstCache;
+    }
+
+    /**
+     * It is used to remove the goal at given cell from goal mask if cell is goal.
+     *
+     * @param mask
+     * @param cellId
+     */
+    private void clearGoal(long[] mask, int cellId) {
+        int goal = goals.indexOf(cellId);
+        if (goal >= 0) {
+            GoalIndex.clear(mask, goal);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+
+/**
+ * It is used to assign dense int id to every multi goal maze state. Maze state is packed as
+ * (cell id, remaining goal mask) and kept in primitive arrays.
+ * <pre>
+ * cells  - cell id of state i at index i
+ * masks  - goal mask of state i at index [i * wordCount, (i + 1) * wordCount)
+ * slots  - open addressing hash table holding (state id + 1), 0 is empty slot
+ * </pre>
+ * No object is created per state, so lookups do not hash or compare any collection.
+ *
+ * @author rudani2
+ *
+ */
+public class MultiGoalStateTable {
+
+    private static final int EMPTY_SLOT = 0;
+    /**
+     * Slot count is always power of two so that slot can be found by masking the hash.
+     */
+    private static final int INITIAL_SLOT_COUNT = 64;
+
+    private final int wordCount;
+    private int[] cells;
+    private long[] masks;
+    private int[] slots;
+    private int size = 0;
+
+    MultiGoalStateTable(int wordCount) {
+        this.wordCount = wordCount;
+        this.cells = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+        this.masks = new long[MazeConstant.QUEUE_INITIAL_CAPACITY * wordCount];
+        this.slots = new int[INITIAL_SLOT_COUNT];
+    }
+
+    /**
+     * It is used to get the id of state (cellId, mask). New id is assigned if state is seen first time.
+     *
+     * @param cellId
+     * @param mask
+     * @return int
+     */
+    public int getId(int cellId, long[] mask) {
+        int slotMask = slots.length - 1;
+        int slot = hash(cellId, mask, 0) & slotMask;
+        while (slots[slot] != EMPTY_SLOT) {
+            int stateId = slots[slot] - 1;
+            if (cells[stateId] == cellId && isSameMask(stateId, mask)) {
+                return stateId;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        int stateId = add(cellId, mask);
+        slots[slot] = stateId + 1;
+        // Keep load factor below half
+        if ((size * 2) > slots.length) {
+            rehash();
+        }
+        return stateId;
+    }
+
+    public int getCell(int stateId) {
+        return cells[stateId];
+    }
+
+    /**
+     * It is used to copy goal mask of given state into given array.
+     *
+     * @param stateId
+     * @param mask
+     */
+    public void copyMask(int stateId, long[] mask) {
+        System.arraycopy(masks, stateId * wordCount, mask, 0, wordCount);
+    }
+
+    /**
+     * It is used to get number of states seen so far.
+     *
+     * @return int
+     */
+    public int size() {
+        return size;
+    }
+
+    private int add(int cellId, long[] mask) {
+        if (size == cells.length) {
+            cells = Arrays.copyOf(cells, size * 2);
+            masks = Arrays.copyOf(masks, size * 2 * wordCount);
+        }
+        cells[size] = cellId;
+        System.arraycopy(mask, 0, masks, size * wordCount, wordCount);
+        return size++;
+    }
+
+    private boolean isSameMask(int stateId, long[] mask) {
+        int offset = stateId * wordCount;
+        for (int word = 0; word < wordCount; word++) {
+            if (masks[offset + word] != mask[word]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int hash(int cellId, long[] mask, int offset) {
+        long hash = cellId * 0x9E3779B97F4A7C15L;
+        for (int word = 0; word < wordCount; word++) {
+            hash = (hash ^ mask[offset + word]) * 0xC2B2AE3D27D4EB4FL;
+        }
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private void rehash() {
+        int[] newSlots = new int[slots.length * 2];
+        int slotMask = newSlots.length - 1;
+        for (int stateId = 0; stateId < size; stateId++) {
+            int slot = hash(cells[stateId], masks, stateId * wordCount) & slotMask;
+            while (newSlots[slot] != EMPTY_SLOT) {
+                slot = (slot + 1) & slotMask;
+            }
+            newSlots[slot] = stateId + 1;
+        }
+        slots = newSlots;
+    }
+}
@@ -0,0 +1,259 @@
+package ai.mp.search.strategy;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * It is used to compare the open lists by timing same A * search with each of them. It takes following
+ * arguments
+ * <pre>
+ * 1. Maze file name
+ * 2. Additional option, 5 for PATH finding or 3 for Multiple GOAL
+ * 3. Number of timed rounds, 10 by default
+ * 4. Optional settings of {@link SearchConfiguration}, like --weight=N
+ * </pre>
+ * Open lists compared are comparator based {@link PriorityQueue} with lazy deletion, {@link IndexedMinHeap}
+ * and {@link BucketQueue}. With admissible heuristic and weight 1 every open list must find path of same
+ * cost, while ties may be broken differently otherwise. States are ordered by same priority as
+ * {@link AStar}, so weighted search times the fixed point priorities real search pushes.
+ *
+ * @author rudani2
+ *
+ */
+public class OpenListBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int DEFAULT_ROUNDS = 10;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: OpenListBenchmark <maze file> <additional option> [rounds]"
+                    + " [--option=value]");
+            System.exit(1);
+        }
+        int rounds = DEFAULT_ROUNDS;
+        int firstOption = 2;
+        if (args.length > 2 && !args[2].startsWith("--")) {
+            rounds = Integer.parseInt(args[2]);
+            firstOption = 3;
+        }
+        SearchConfiguration.parseArguments(args, firstOption);
+        long costScale = AStar.getCostScale(SearchConfiguration.getWeight());
+        long heuristicFactor = AStar.getHeuristicFactor(SearchConfiguration.getWeight());
+        Preprocessing.processUserInput(Integer.parseInt(args[1]));
+        Preprocessing.preprocessFile(args[0]);
+        CompiledMaze maze = Preprocessing.getCompiledMaze();
+        SearchProblem problem = Preprocessing.isMultipleGoal() ? new MultiGoalSearchProblem(maze
+                , SearchConfiguration.getMultiGoalHeuristic())
+                : new GridSearchProblem(maze);
+
+        String[] names = {"comparator", "heap", "bucket"};
+        for (String name : names) {
+            long cost = 0L;
+            long expanded = 0L;
+            long bestNanos = Long.MAX_VALUE;
+            long totalNanos = 0L;
+            for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+                PriorityOpenList openList = newOpenList(name, problem.getStateCount());
+                long startTime = System.nanoTime();
+                long[] result = search(problem, openList, costScale, heuristicFactor);
+                long elapsed = System.nanoTime() - startTime;
+                cost = result[0];
+                expanded = result[1];
+                if (round >= WARMUP_ROUNDS) {
+                    bestNanos = Math.min(bestNanos, elapsed);
+                    totalNanos += elapsed;
+                }
+            }
+            System.out.println(String.format("%-10s cost %d expanded %d best %.3f ms mean %.3f ms", name, cost
+                    , expanded, bestNanos / 1e6, (totalNanos / 1e6) / rounds));
+        }
+    }
+
+    private static PriorityOpenList newOpenList(String name, int capacity) {
+        switch (name) {
+            case "comparator" :
+                return new ComparatorOpenList(capacity);
+            case "bucket" :
+                return new BucketQueue(capacity);
+            default :
+                return new IndexedMinHeap(capacity);
+        }
+    }
+
+    /**
+     * It is used to run A * search of given problem with given open list. State priority is
+     * costScale * g + heuristicFactor * h as in {@link AStar}.
+     *
+     * @param problem
+     * @param openList
+     * @param costScale
+     * @param heuristicFactor
+     * @return long[] solution cost (-1 if there is no solution) and nodes expanded
+     */
+    private static long[] search(SearchProblem problem, PriorityOpenList openList, long costScale
+            , long heuristicFactor) {
+        int capacity = Math.max(MazeConstant.QUEUE_INITIAL_CAPACITY, problem.getStateCount());
+        int[] approachableCost = new int[capacity];
+        Arrays.fill(approachableCost, Integer.MAX_VALUE);
+        boolean[] expanded = new boolean[capacity];
+        int[] successors = new int[problem.getMaxSuccessorCount()];
+        int[] moveCosts = new int[problem.getMaxSuccessorCount()];
+        long nodesExpanded = 0L;
+
+        int startState = problem.getStartState();
+        approachableCost[startState] = 0;
+        openList.offer(startState, heuristicFactor * problem.getHeuristic(startState));
+        while (!openList.isEmpty()) {
+            int currentState = openList.poll();
+            if (problem.isGoal(currentState)) {
+                return new long[] {approachableCost[currentState], nodesExpanded};
+            }
+            expanded[currentState] = true;
+            nodesExpanded += 1;
+            int successorCount = problem.getSuccessors(currentState, successors, moveCosts);
+            for (int i = 0; i < successorCount; i++) {
+                int child = successors[i];
+                if (child >= expanded.length) {
+                    int newCapacity = Math.max(expanded.length * 2, child + 1);
+                    expanded = Arrays.copyOf(expanded, newCapacity);
+                    int oldCapacity = approachableCost.length;
+                    approachableCost = Arrays.copyOf(approachableCost, newCapacity);
+                    Arrays.fill(approachableCost, oldCapacity, newCapacity, Integer.MAX_VALUE);
+                }
+                int approachedCost = approachableCost[currentState] + moveCosts[i];
+                if (expanded[child] || approachedCost >= approachableCost[child]) {
+                    continue;
+                }
+                approachableCost[child] = approachedCost;
+                openList.update(child, (approachedCost * costScale)
+                        + (heuristicFactor * problem.getHeuristic(child)));
+            }
+        }
+        return new long[] {-1L, nodesExpanded};
+    }
+
+    /**
+     * It is the open list kept in comparator based {@link PriorityQueue}. Changed priority is pushed as new
+     * entry and stale entries are skipped when they reach the head.
+     */
+    private static class ComparatorOpenList implements PriorityOpenList {
+
+        private static final long ABSENT = Long.MIN_VALUE;
+
+        private final PriorityQueue<long[]> queue = new PriorityQueue<long[]>(MazeConstant.QUEUE_INITIAL_CAPACITY
+                , new Comparator<long[]>() {
+                    @Override
+                    public int compare(long[] entry, long[] otherEntry) {
+                        return Long.compare(entry[1], otherEntry[1]);
+                    }
+                });
+        private long[] priority;
+        private int size = 0;
+
+        ComparatorOpenList(int capacity) {
+            this.priority = new long[Math.max(capacity, MazeConstant.QUEUE_INITIAL_CAPACITY)];
+            Arrays.fill(priority, ABSENT);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(int id) {
+            return id < priority.length && priority[id] != ABSENT;
+        }
+
+        @Override
+        public long getPriority(int id) {
+            return priority[id];
+        }
+
+        @Override
+        public boolean offer(int id, long newPriority) {
+            if (contains(id)) {
+                return decreaseKey(id, newPriority);
+            }
+            update(id, newPriority);
+            return true;
+        }
+
+        @Override
+        public void update(int id, long newPriority) {
+            if (id >= priority.length) {
+                int oldCapacity = priority.length;
+                priority = Arrays.copyOf(priority, Math.max(oldCapacity * 2, id + 1));
+                Arrays.fill(priority, oldCapacity, priority.length, ABSENT);
+            }
+            if (!contains(id)) {
+                size += 1;
+            }
+            priority[id] = newPriority;
+            queue.add(new long[] {id, newPriority});
+        }
+
+        @Override
+        public boolean decreaseKey(int id, long newPriority) {
+            if (newPriority >= priority[id]) {
+                return false;
+            }
+            update(id, newPriority);
+            return true;
+        }
+
+        @Override
+        public int peek() {
+            return (int) head()[0];
+        }
+
+        @Override
+        public long peekPriority() {
+            return head()[1];
+        }
+
+        @Override
+        public int poll() {
+            int id = (int) head()[0];
+            remove(id);
+            return id;
+        }
+
+        @Override
+        public boolean remove(int id) {
+            if (!contains(id)) {
+                return false;
+            }
+            priority[id] = ABSENT;
+            size -= 1;
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            queue.clear();
+            Arrays.fill(priority, ABSENT);
+            size = 0;
+        }
+
+        /**
+         * It is used to drop stale entries till head entry holds current priority of its id.
+         *
+         * @return long[] id and priority
+         */
+        private long[] head() {
+            while (queue.peek()[1] != priority[(int) queue.peek()[0]]) {
+                queue.poll();
+            }
+            return queue.peek();
+        }
+    }
+}
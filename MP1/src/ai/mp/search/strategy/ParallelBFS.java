@@ -0,0 +1,175 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * It is used to run level synchronous BFS over whole maze on fork join pool. Every frontier layer is split
+ * into chunks and each chunk is expanded by one task.
+ * <pre>
+ * visited  - one bit per cell id in AtomicLongArray. Cell is claimed by compare and set of its bit, so
+ *            exactly one task adds it to next layer and writes its distance
+ * buffers  - every chunk writes claimed cells into its own output buffer, so tasks share nothing but
+ *            visited bits. Buffers are joined in chunk order into next frontier and reused by later layers
+ * </pre>
+ * Layer which fits in one chunk is expanded on calling thread, as fork and join costs more than it saves.
+ * Which task claims a cell may change from run to run, but distance of cell is its layer number in every
+ * run, so distance map and path built from it are same for any number of threads.
+ *
+ * @author rudani2
+ *
+ */
+class ParallelBFS implements FloodFill {
+
+    private static final int MIN_CHUNK_SIZE = 1024;
+    /**
+     * It is number of chunks per thread, so that thread which finishes early can take other chunk.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final CompiledMaze maze;
+    private final int threadCount;
+
+    ParallelBFS(CompiledMaze maze, int threadCount) {
+        this.maze = maze;
+        this.threadCount = threadCount;
+    }
+
+    @Override
+    public int[] getDistances(int sourceCell) {
+        int[] distance = new int[maze.getCellCount()];
+        Arrays.fill(distance, GoalDistanceMatrix.UNREACHABLE);
+        AtomicLongArray visited = new AtomicLongArray((maze.getCellCount() + 63) >>> 6);
+        claim(visited, sourceCell);
+        distance[sourceCell] = 0;
+        int[] frontier = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+        frontier[0] = sourceCell;
+        int frontierSize = 1;
+        int[][] buffers = new int[0][];
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            int layer = 0;
+            while (frontierSize > 0) {
+                layer += 1;
+                int chunkSize = Math.max(MIN_CHUNK_SIZE, divideRoundingUp(frontierSize, threadCount * CHUNKS_PER_THREAD));
+                int chunkCount = divideRoundingUp(frontierSize, chunkSize);
+                if (buffers.length < chunkCount) {
+                    buffers = Arrays.copyOf(buffers, chunkCount);
+                }
+                LayerTask[] tasks = new LayerTask[chunkCount];
+                for (int chunk = 0; chunk < chunkCount; chunk++) {
+                    int from = chunk * chunkSize;
+                    tasks[chunk] = new LayerTask(frontier, from, Math.min(frontierSize, from + chunkSize), buffers[chunk]
+                            , visited, distance, layer);
+                }
+                if (chunkCount == 1) {
+                    tasks[0].invoke();
+                } else {
+                    for (LayerTask task : tasks) {
+                        pool.execute(task);
+                    }
+                    for (LayerTask task : tasks) {
+                        task.join();
+                    }
+                }
+                // Join buffers of chunks in chunk order into next frontier
+                int nextSize = 0;
+                for (LayerTask task : tasks) {
+                    nextSize += task.outputSize;
+                }
+                if (frontier.length < nextSize) {
+                    frontier = new int[Math.max(nextSize, frontier.length * 2)];
+                }
+                nextSize = 0;
+                for (int chunk = 0; chunk < chunkCount; chunk++) {
+                    buffers[chunk] = tasks[chunk].output;
+                    System.arraycopy(tasks[chunk].output, 0, frontier, nextSize, tasks[chunk].outputSize);
+                    nextSize += tasks[chunk].outputSize;
+                }
+                frontierSize = nextSize;
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return distance;
+    }
+
+    private static int divideRoundingUp(int dividend, int divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    /**
+     * It is used to set visited bit of cell if it is not already set.
+     *
+     * @param visited
+     * @param cell
+     * @return boolean true if this call set the bit
+     */
+    private static boolean claim(AtomicLongArray visited, int cell) {
+        int word = cell >>> 6;
+        long bit = 1L << cell;
+        long seen = visited.get(word);
+        while ((seen & bit) == 0L) {
+            if (visited.compareAndSet(word, seen, seen | bit)) {
+                return true;
+            }
+            seen = visited.get(word);
+        }
+        return false;
+    }
+
+    /**
+     * It is used to expand one chunk of frontier layer into its own output buffer.
+     *
+     * @author rudani2
+     *
+     */
+    private class LayerTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+        private final AtomicLongArray visited;
+        private final int[] distance;
+        private final int layer;
+        private int[] output;
+        private int outputSize = 0;
+
+        LayerTask(int[] frontier, int from, int to, int[] output, AtomicLongArray visited, int[] distance
+                , int layer) {
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.output = output;
+            this.visited = visited;
+            this.distance = distance;
+            this.layer = layer;
+        }
+
+        @Override
+        protected void compute() {
+            int[] neighborOffsets = maze.getNeighborOffsets();
+            // Every cell has at most 3 unvisited neighbors, 4 for source cell
+            int capacity = (to - from) * neighborOffsets.length;
+            if (output == null || output.length < capacity) {
+                output = new int[capacity];
+            }
+            for (int i = from; i < to; i++) {
+                int cell = frontier[i];
+                for (int offset : neighborOffsets) {
+                    int child = cell + offset;
+                    // Distance read may be stale, but then compare and set of visited bit decides
+                    if (!maze.isWall(child) && distance[child] == GoalDistanceMatrix.UNREACHABLE
+                            && claim(visited, child)) {
+                        distance[child] = layer;
+                        output[outputSize++] = child;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ai.mp.search.strategy;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * It is used to measure speedup of {@link ParallelBFS} with growing number of threads. It takes following
+ * arguments
+ * <pre>
+ * 1. Maze file name
+ * 2. Most threads, number of processors by default
+ * 3. Number of timed rounds, 5 by default
+ * </pre>
+ * Maze is flooded from start position. Queue BFS on single thread is timed first as baseline, then
+ * parallel BFS with 1 to most threads. Run which builds other distance map than queue BFS is reported.
+ *
+ * @author rudani2
+ *
+ */
+public class ParallelBFSBenchmark {
+
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int DEFAULT_ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: ParallelBFSBenchmark <maze file> [most threads] [rounds]");
+            System.exit(1);
+        }
+        int mostThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_ROUNDS;
+        Preprocessing.processUserInput(5);
+        Preprocessing.preprocessFile(args[0]);
+        final CompiledMaze maze = Preprocessing.getCompiledMaze();
+        final int sourceCell = maze.getStartCell();
+
+        final int[] expected = new GoalDistanceMatrix.DistanceTask(maze, sourceCell).compute();
+        long baselineNanos = time(new FloodFill() {
+            @Override
+            public int[] getDistances(int cell) {
+                return new GoalDistanceMatrix.DistanceTask(maze, cell).compute();
+            }
+        }, sourceCell, expected, rounds);
+        System.out.println(String.format("queue      best %.3f ms", baselineNanos / 1e6));
+        long oneThreadNanos = 0L;
+        for (int threads = 1; threads <= mostThreads; threads++) {
+            long bestNanos = time(new ParallelBFS(maze, threads), sourceCell, expected, rounds);
+            if (threads == 1) {
+                oneThreadNanos = bestNanos;
+            }
+            System.out.println(String.format("%2d threads best %.3f ms speedup %.2f (%.2f over queue)", threads
+                    , bestNanos / 1e6, (double) oneThreadNanos / bestNanos, (double) baselineNanos / bestNanos));
+        }
+    }
+
+    /**
+     * It is used to get best time of flooding maze with given flood fill.
+     *
+     * @return long nanoseconds
+     */
+    private static long time(FloodFill floodFill, int sourceCell, int[] expected, int rounds) {
+        long bestNanos = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+            long startTime = System.nanoTime();
+            int[] distance = floodFill.getDistances(sourceCell);
+            long elapsed = System.nanoTime() - startTime;
+            if (!Arrays.equals(expected, distance)) {
+                System.out.println("Distance map of round " + round + " differs from queue BFS");
+            }
+            if (round >= WARMUP_ROUNDS) {
+                bestNanos = Math.min(bestNanos, elapsed);
+            }
+        }
+        return bestNanos;
+    }
+}
@@ -0,0 +1,118 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+
+/**
+ * It holds the states on current path of depth first search. It is open addressing hash set with linear
+ * probing, sized to number of states in it rather than to state space, so its memory grows only with depth
+ * of search. Removed state is filled by shifting later states of its probe run back, so no tombstone is
+ * left behind and set of same size is probed as fast after many pushes and pops.
+ *
+ * @author rudani2
+ *
+ */
+class PathStateSet {
+
+    private static final int EMPTY_SLOT = -1;
+
+    private int[] slots;
+    private int shift;
+    private int size = 0;
+
+    /**
+     * It is used to create set which holds given number of states before it grows.
+     *
+     * @param capacity
+     */
+    PathStateSet(int capacity) {
+        // Keep load factor at most half. Slot count is power of two
+        int slotCount = Math.max(2, Integer.highestOneBit(Math.max(1, capacity) - 1) << 2);
+        allocate(slotCount);
+    }
+
+    private void allocate(int slotCount) {
+        slots = new int[slotCount];
+        Arrays.fill(slots, EMPTY_SLOT);
+        shift = 32 - Integer.numberOfTrailingZeros(slotCount);
+    }
+
+    private int getHomeSlot(int state) {
+        return (state * 0x9E3779B9) >>> shift;
+    }
+
+    /**
+     * It is used to check whether given state is on path.
+     *
+     * @param state
+     * @return boolean
+     */
+    boolean contains(int state) {
+        int mask = slots.length - 1;
+        for (int slot = getHomeSlot(state); slots[slot] != EMPTY_SLOT; slot = (slot + 1) & mask) {
+            if (slots[slot] == state) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * It is used to add state which is not on path.
+     *
+     * @param state
+     */
+    void add(int state) {
+        if ((size + 1) * 2 > slots.length) {
+            int[] oldSlots = slots;
+            allocate(slots.length * 2);
+            size = 0;
+            for (int oldState : oldSlots) {
+                if (oldState != EMPTY_SLOT) {
+                    add(oldState);
+                }
+            }
+        }
+        int mask = slots.length - 1;
+        int slot = getHomeSlot(state);
+        while (slots[slot] != EMPTY_SLOT) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = state;
+        size += 1;
+    }
+
+    /**
+     * It is used to remove state from path if it is on path.
+     *
+     * @param state
+     */
+    void remove(int state) {
+        int mask = slots.length - 1;
+        int slot = getHomeSlot(state);
+        while (slots[slot] != state) {
+            if (slots[slot] == EMPTY_SLOT) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        size -= 1;
+        // Move back every later state of probe run whose home slot does not lie between hole and its slot
+        int hole = slot;
+        for (int next = (hole + 1) & mask; slots[next] != EMPTY_SLOT; next = (next + 1) & mask) {
+            int home = getHomeSlot(slots[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = slots[next];
+                hole = next;
+            }
+        }
+        slots[hole] = EMPTY_SLOT;
+    }
+
+    /**
+     * It is used to remove every state.
+     */
+    void clear() {
+        Arrays.fill(slots, EMPTY_SLOT);
+        size = 0;
+    }
+}
@@ -44,11 +44,6 @@ public class Position implements Comparable<Position> {
      * </pre>
      */
     private final int direction;
-    /**
-     * It indicates towards which direction the current node is facing. It holds
-     * the Position node from that direction.
-     */
-    private Position facing;
     /**
      * It holds the next neighbor which has least distance among other neighbors.
      */
@@ -61,10 +56,6 @@ public class Position implements Comparable<Position> {
      * It indicates whether position was already explored or not.
      */
     private boolean isVisited;
-    /**
-     * It includes penalty incurred for these position.
-     */
-    private long penalty;
 
     Position(int x, int y, Position parent, long cost, long approachableCost, int direction) {
         this.x = x;
@@ -112,14 +103,6 @@ public class Position implements Comparable<Position> {
         return direction;
     }
 
-    public Position getFacing() {
-        return facing;
-    }
-
-    public void setFacing(Position facing) {
-        this.facing = facing;
-    }
-
     public Position getNextNeighborNode() {
         return nextNeighborNode;
     }
@@ -136,14 +119,6 @@ public class Position implements Comparable<Position> {
         this.edgeCost = edgeCost;
     }
 
-    public long getPenalty() {
-        return penalty;
-    }
-
-    public void setPenalty(long penalty) {
-        this.penalty = penalty;
-    }
-
     public boolean isVisited() {
         return isVisited;
     }
@@ -1,20 +1,13 @@
 package ai.mp.search.strategy;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Set;
 
 
 /**
- * This class is used to preprocess the maze file. It converst the maze file in following format
+ * This class is used to preprocess the maze file. It compiles the maze file into {@link CompiledMaze}.
+ * The legacy co-ordinate based format is derived from it on demand as follows
  * 
  * <pre>
  * [-1 -1 -1 -1
@@ -33,6 +26,8 @@ import java.util.Set;
  */
 public class Preprocessing {
 
+    private static String mazeFile;
+    private static CompiledMaze compiledMaze;
     private static int [][] preprocessedMaze;
     private static char[][] solutionMatrix;
     private static Set<Position> goalSet;
@@ -40,9 +35,6 @@ public class Preprocessing {
     private static Position ghostPosition;
     private static Position goalPosition;
 
-    private static boolean isInitialized = false;
-    private static int rowCount = 0;
-
     private static boolean isPenalty = false;
     private static boolean isGhost = false;
     private static boolean isMultipleGoal = false;
@@ -70,92 +62,48 @@ public class Preprocessing {
     }
 
     /**
-     * It is used to read file by line and process each line to populate the
-     * maze and solution maze
+     * It is used to load the maze file into compiled maze and collect start, goal and
+     * ghost positions from it. Maze is printed only if verbose option is set.
      * 
      * @param file
      * @throws IOException
      */
     public static void preprocessFile(String file) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get(file), Charset.defaultCharset());
-        rowCount = lines.size();
-        readFileByLine(new File(file));
+        mazeFile = file;
+        compiledMaze = MazeLoader.load(file, SearchConfiguration.isVerbose());
+        preprocessedMaze = null;
+        solutionMatrix = null;
+        goalSet = new HashSet<Position>();
+        collectPositions();
     }
 
     /**
-     * It used to read file by line
-     * @param file
-     * @throws IOException
+     * It is used to build start, goal and ghost positions from the cells collected by compiled maze.
      */
-    private static void readFileByLine(File file) throws IOException {
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line = null;
-            int row = 0;
-            while ((line = br.readLine()) != null) {
-                if (!isInitialized) {
-                    preprocessedMaze = new int[rowCount][line.length()];
-                    solutionMatrix = new char[rowCount][line.length()];
-                    goalSet = new HashSet<Position>();
-                    isInitialized = true;
-                }
-                System.out.println(line);
-                processLineAndPopulateMaze(row++, line);
+    private static void collectPositions() {
+        if (compiledMaze.getStartCell() != MazeConstant.NO_CELL) {
+            startPosition = new Position(compiledMaze.getRow(compiledMaze.getStartCell())
+                    , compiledMaze.getColumn(compiledMaze.getStartCell()), null, MazeConstant.DEFAULT_COST
+                    , 0L, MazeConstant.RIGHT_DIRECTION);
+        }
+        if (!isMultipleGoal()) {
+            if (compiledMaze.getGoalCell() != MazeConstant.NO_CELL) {
+                goalPosition = newPosition(compiledMaze.getGoalCell());
+            }
+        } else {
+            // Collect all the goal position
+            for (int goalCell : compiledMaze.getGoalCells()) {
+                goalSet.add( newPosition(goalCell) );
             }
         }
+        if (isGhost() && compiledMaze.getGhostCell() != MazeConstant.NO_CELL) {
+            ghostPosition = newPosition(compiledMaze.getGhostCell());
+        }
     }
 
-    /**
-     * It is used to process each line and populate preprocessed Maze
-     * and solution Maze. It interprets
-     * <pre>
-     * % as -1 for Wall
-     * P as 0 for start position
-     * . as 1 for Goal state
-     * Ghost as 2
-     * Path as 3
-     * </pre>
-     *
-     * @param line
-     */
-    private static void processLineAndPopulateMaze(int row, String line) {
-        int i = 0;
-        while (i < line.length()) {
-            char ch = line.charAt(i);
-            switch (ch) {
-                case '%' :
-                    preprocessedMaze[row][i] = MazeConstant.WALL_MARKER;
-                    solutionMatrix[row][i] = '%';
-                    break;
-                case 'P' :
-                    preprocessedMaze[row][i] = MazeConstant.START_POSITION_MARKER;
-                    solutionMatrix[row][i] = 'P';
-                    startPosition = new Position(row, i, null, MazeConstant.DEFAULT_COST, 0L, MazeConstant.RIGHT_DIRECTION);
-                    break;
-                case '.' :
-                    preprocessedMaze[row][i] = MazeConstant.GOAL_POSITION_MARKER;
-                    solutionMatrix[row][i] = '.';
-                    if (!isMultipleGoal()) {
-                        goalPosition = new Position(row, i, null, MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-                    } else {
-                        // Collect all the goal position
-                        goalSet.add( new Position(row, i, null, MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION) );
-                    }
-                    break;
-                case 'G' :
-                    preprocessedMaze[row][i] = MazeConstant.GHOST_POSITION_MARKER;
-                    solutionMatrix[row][i] = 'G';
-                    if (isGhost()) {
-                        ghostPosition = new Position(row, i, null, MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
-                    }
-                    break;
-                case ' ' :
-                case 'g' :
-                    preprocessedMaze[row][i] = MazeConstant.PATH_MARKER;
-                    solutionMatrix[row][i] = ' ';
-                    break;
-            }
-            i += 1;
-        }
+    private static Position newPosition(int cellId) {
+        return new Position(compiledMaze.getRow(cellId), compiledMaze.getColumn(cellId), null
+                , MazeConstant.DEFAULT_COST, MazeConstant.DEFAULT_COST, MazeConstant.RIGHT_DIRECTION);
     }
 
     public static boolean isPenalty() {
@@ -178,11 +126,35 @@ public class Preprocessing {
         return isOurHeuristic;
     }
 
+    public static String getMazeFile() {
+        return mazeFile;
+    }
+
+    public static CompiledMaze getCompiledMaze() {
+        return compiledMaze;
+    }
+
+    /**
+     * It is used to get co-ordinate based maze. It is built from compiled maze on first use.
+     *
+     * @return int[][]
+     */
     public static int[][] getPreprocessedMaze() {
+        if (preprocessedMaze == null) {
+            preprocessedMaze = compiledMaze.toIntMatrix();
+        }
         return preprocessedMaze;
     }
 
+    /**
+     * It is used to get co-ordinate based solution maze. It is built from compiled maze on first use.
+     *
+     * @return char[][]
+     */
     public static char[][] getSolutionMatrix() {
+        if (solutionMatrix == null) {
+            solutionMatrix = compiledMaze.toSolutionMatrix(null);
+        }
         return solutionMatrix;
     }
 
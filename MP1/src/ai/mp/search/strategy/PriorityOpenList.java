@@ -0,0 +1,92 @@
+package ai.mp.search.strategy;
+
+/**
+ * It specify open list contract of the search strategies which expand ids (packed cell id or state id)
+ * in order of lowest long priority. It is selected on command line by --open-list.
+ *
+ * @author rudani2
+ *
+ */
+interface PriorityOpenList {
+
+    boolean isEmpty();
+
+    int size();
+
+    /**
+     * It is used to check whether given id is currently in open list.
+     *
+     * @param id
+     * @return boolean
+     */
+    boolean contains(int id);
+
+    /**
+     * It is used to get the priority of given id. Only valid if id is in open list.
+     *
+     * @param id
+     * @return long
+     */
+    long getPriority(int id);
+
+    /**
+     * It is used to insert the id with given priority. If id is already in open list then
+     * its priority is lowered only if new priority is less than current priority.
+     *
+     * @param id
+     * @param newPriority
+     * @return boolean true if open list is modified
+     */
+    boolean offer(int id, long newPriority);
+
+    /**
+     * It is used to set the priority of id to any value. It inserts the id if not present.
+     *
+     * @param id
+     * @param newPriority
+     */
+    void update(int id, long newPriority);
+
+    /**
+     * It is used to lower the priority of id which is already in open list.
+     *
+     * @param id
+     * @param newPriority
+     * @return boolean true if priority is lowered
+     */
+    boolean decreaseKey(int id, long newPriority);
+
+    /**
+     * It is used to get the id with lowest priority without removing it.
+     *
+     * @return int
+     */
+    int peek();
+
+    /**
+     * It is used to get the lowest priority in open list.
+     *
+     * @return long
+     */
+    long peekPriority();
+
+    /**
+     * It is used to remove and return the id with lowest priority.
+     *
+     * @return int
+     */
+    int poll();
+
+    /**
+     * It is used to remove given id from open list if present.
+     *
+     * @param id
+     * @return boolean
+     */
+    boolean remove(int id);
+
+    /**
+     * It is used to remove all the ids from open list.
+     */
+    void clear();
+}
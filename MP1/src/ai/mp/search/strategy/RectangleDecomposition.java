@@ -0,0 +1,312 @@
+package ai.mp.search.strategy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * It holds the decomposition of open cells of {@link CompiledMaze} into empty rectangles used by
+ * rectangular symmetry reduction. Every open cell belongs to exactly one rectangle.
+ * <pre>
+ * Greedy     - first open cell not yet covered, in row major order, grows as square while next row and
+ *              column are open and not covered, then grows right and then down as far as it can
+ * Perimeter  - cell in top or bottom row or left or right column of its rectangle. Other cells are
+ *              interior, and are never expanded by search except start
+ * File       - saved next to maze file as maze file name + .rects, gzip compressed. Header holds row count,
+ *              column count and checksum of walls, so file of changed maze is rebuilt. Start and goals
+ *              are not part of decomposition, so it is reused by every query on same maze
+ * </pre>
+ *
+ * @author rudani2
+ *
+ */
+public class RectangleDecomposition {
+
+    private static final String FILE_SUFFIX = ".rects";
+    private static final int FILE_MAGIC = 0x52454354;
+
+    private static RectangleDecomposition cachedDecomposition;
+
+    private final CompiledMaze maze;
+    private final int[] cellRectangle;
+    private int[] top = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+    private int[] left = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+    private int[] bottom = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+    private int[] right = new int[MazeConstant.QUEUE_INITIAL_CAPACITY];
+    private int rectangleCount = 0;
+
+    private RectangleDecomposition(CompiledMaze maze) {
+        this.maze = maze;
+        this.cellRectangle = new int[maze.getCellCount()];
+        Arrays.fill(cellRectangle, MazeConstant.NO_CELL);
+    }
+
+    /**
+     * It is used to get the decomposition of given maze. It is loaded from file saved next to maze file if
+     * that file matches the walls of maze, otherwise it is built and saved.
+     *
+     * @param maze
+     * @param mazeFile maze file name, null to keep decomposition in memory only
+     * @return RectangleDecomposition
+     */
+    static synchronized RectangleDecomposition getInstance(CompiledMaze maze, String mazeFile) {
+        if (cachedDecomposition != null && cachedDecomposition.maze == maze) {
+            return cachedDecomposition;
+        }
+        long startTime = System.nanoTime();
+        File decompositionFile = mazeFile == null ? null : new File(mazeFile + FILE_SUFFIX);
+        RectangleDecomposition decomposition = new RectangleDecomposition(maze);
+        if (decompositionFile != null && decomposition.load(decompositionFile)) {
+            if (SearchConfiguration.isVerbose()) {
+                System.out.println("Rectangle decomposition loaded from " + decompositionFile + " in "
+                        + ((System.nanoTime() - startTime) / 1000000L) + " ms");
+            }
+        } else {
+            decomposition = new RectangleDecomposition(maze);
+            decomposition.build();
+            if (SearchConfiguration.isVerbose()) {
+                System.out.println("Rectangle decomposition built in "
+                        + ((System.nanoTime() - startTime) / 1000000L) + " ms");
+            }
+            if (decompositionFile != null) {
+                decomposition.save(decompositionFile);
+            }
+        }
+        if (SearchConfiguration.isVerbose()) {
+            System.out.println("Rectangles " + decomposition.rectangleCount + ", perimeter cells "
+                    + decomposition.getPerimeterCellCount());
+        }
+        cachedDecomposition = decomposition;
+        return cachedDecomposition;
+    }
+
+    private void build() {
+        for (int row = 0; row < maze.getRowCount(); row++) {
+            for (int column = 0; column < maze.getColumnCount(); column++) {
+                if (isFree(row, column)) {
+                    addRectangle(row, column);
+                }
+            }
+        }
+    }
+
+    private boolean isFree(int row, int column) {
+        int cell = maze.getCellId(row, column);
+        return !maze.isWall(cell) && cellRectangle[cell] == MazeConstant.NO_CELL;
+    }
+
+    private boolean isFreeRow(int row, int fromColumn, int toColumn) {
+        if (row >= maze.getRowCount()) {
+            return false;
+        }
+        for (int column = fromColumn; column <= toColumn; column++) {
+            if (!isFree(row, column)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isFreeColumn(int column, int fromRow, int toRow) {
+        if (column >= maze.getColumnCount()) {
+            return false;
+        }
+        for (int row = fromRow; row <= toRow; row++) {
+            if (!isFree(row, column)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * It is used to grow rectangle from given top left cell and to mark its cells.
+     *
+     * @param firstRow
+     * @param firstColumn
+     */
+    private void addRectangle(int firstRow, int firstColumn) {
+        int lastRow = firstRow;
+        int lastColumn = firstColumn;
+        while (isFreeRow(lastRow + 1, firstColumn, lastColumn + 1) && isFreeColumn(lastColumn + 1, firstRow, lastRow)) {
+            lastRow += 1;
+            lastColumn += 1;
+        }
+        while (isFreeColumn(lastColumn + 1, firstRow, lastRow)) {
+            lastColumn += 1;
+        }
+        while (isFreeRow(lastRow + 1, firstColumn, lastColumn)) {
+            lastRow += 1;
+        }
+        setRectangle(firstRow, firstColumn, lastRow, lastColumn);
+    }
+
+    private void setRectangle(int firstRow, int firstColumn, int lastRow, int lastColumn) {
+        if (rectangleCount == top.length) {
+            top = Arrays.copyOf(top, rectangleCount * 2);
+            left = Arrays.copyOf(left, rectangleCount * 2);
+            bottom = Arrays.copyOf(bottom, rectangleCount * 2);
+            right = Arrays.copyOf(right, rectangleCount * 2);
+        }
+        top[rectangleCount] = firstRow;
+        left[rectangleCount] = firstColumn;
+        bottom[rectangleCount] = lastRow;
+        right[rectangleCount] = lastColumn;
+        for (int row = firstRow; row <= lastRow; row++) {
+            int cell = maze.getCellId(row, firstColumn);
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                cellRectangle[cell++] = rectangleCount;
+            }
+        }
+        rectangleCount += 1;
+    }
+
+    /**
+     * It is used to get the rectangle of given cell.
+     *
+     * @param cell
+     * @return int rectangle or {@link MazeConstant#NO_CELL} for Wall
+     */
+    int getRectangle(int cell) {
+        return cellRectangle[cell];
+    }
+
+    int getTop(int rectangle) {
+        return top[rectangle];
+    }
+
+    int getLeft(int rectangle) {
+        return left[rectangle];
+    }
+
+    int getBottom(int rectangle) {
+        return bottom[rectangle];
+    }
+
+    int getRight(int rectangle) {
+        return right[rectangle];
+    }
+
+    /**
+     * It is used to check whether open cell lies inside its rectangle and not on its perimeter.
+     *
+     * @param cell
+     * @return boolean
+     */
+    boolean isInterior(int cell) {
+        int rectangle = cellRectangle[cell];
+        int row = maze.getRow(cell);
+        int column = maze.getColumn(cell);
+        return row > top[rectangle] && row < bottom[rectangle] && column > left[rectangle]
+                && column < right[rectangle];
+    }
+
+    private long getPerimeterCellCount() {
+        long count = 0L;
+        for (int rectangle = 0; rectangle < rectangleCount; rectangle++) {
+            long height = bottom[rectangle] - top[rectangle] + 1;
+            long width = right[rectangle] - left[rectangle] + 1;
+            count += (height * width) - (Math.max(0L, height - 2) * Math.max(0L, width - 2));
+        }
+        return count;
+    }
+
+    CompiledMaze getMaze() {
+        return maze;
+    }
+
+    /**
+     * It is used to read decomposition file. File which can not be read, which belongs to other maze or
+     * whose rectangles do not cover open cells exactly once is ignored.
+     *
+     * @param decompositionFile
+     * @return boolean true if decomposition is loaded
+     */
+    private boolean load(File decompositionFile) {
+        if (!decompositionFile.isFile()) {
+            return false;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(decompositionFile))))) {
+            if (input.readInt() != FILE_MAGIC || input.readInt() != maze.getRowCount()
+                    || input.readInt() != maze.getColumnCount() || input.readLong() != getChecksum(maze)) {
+                return false;
+            }
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                int firstRow = input.readInt();
+                int firstColumn = input.readInt();
+                int lastRow = input.readInt();
+                int lastColumn = input.readInt();
+                if (firstRow < 0 || firstColumn < 0 || lastRow < firstRow || lastColumn < firstColumn
+                        || lastRow >= maze.getRowCount() || lastColumn >= maze.getColumnCount()) {
+                    return false;
+                }
+                for (int row = firstRow; row <= lastRow; row++) {
+                    if (!isFreeRow(row, firstColumn, lastColumn)) {
+                        return false;
+                    }
+                }
+                setRectangle(firstRow, firstColumn, lastRow, lastColumn);
+            }
+            for (int cell = 0; cell < maze.getCellCount(); cell++) {
+                if (!maze.isWall(cell) && cellRectangle[cell] == MazeConstant.NO_CELL) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            System.out.println("Ignoring unreadable rectangle decomposition " + decompositionFile + ": "
+                    + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * It is used to write decomposition file. Decomposition is still used from memory if file can not be
+     * written.
+     *
+     * @param decompositionFile
+     */
+    private void save(File decompositionFile) {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(decompositionFile))))) {
+            output.writeInt(FILE_MAGIC);
+            output.writeInt(maze.getRowCount());
+            output.writeInt(maze.getColumnCount());
+            output.writeLong(getChecksum(maze));
+            output.writeInt(rectangleCount);
+            for (int rectangle = 0; rectangle < rectangleCount; rectangle++) {
+                output.writeInt(top[rectangle]);
+                output.writeInt(left[rectangle]);
+                output.writeInt(bottom[rectangle]);
+                output.writeInt(right[rectangle]);
+            }
+        } catch (IOException e) {
+            System.out.println("Could not save rectangle decomposition " + decompositionFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * It is used to calculate checksum of walls, so that change of any wall is detected.
+     *
+     * @param maze
+     * @return long
+     */
+    private static long getChecksum(CompiledMaze maze) {
+        CRC32 checksum = new CRC32();
+        for (int cell = 0; cell < maze.getCellCount(); cell++) {
+            checksum.update(maze.isWall(cell) ? 1 : 0);
+        }
+        return checksum.getValue();
+    }
+}
@@ -0,0 +1,159 @@
+package ai.mp.search.strategy;
+
+/**
+ * It is the single goal PATH finding problem on {@link RectangleDecomposition}, which prunes symmetric paths
+ * through empty rectangles. State is cell id, but only perimeter cells of rectangles are reached
+ * <pre>
+ * Perimeter cell - moves to open neighbor unless it is interior of same rectangle, and jumps straight
+ *                  across rectangle to opposite side (macro edge)
+ * Interior start - jumps straight to the four sides of its rectangle
+ * Goal           - if goal is interior of rectangle, every state of that rectangle jumps to it
+ * </pre>
+ * Every jump costs the manhattan distance it covers, which is its maze distance as rectangle is empty.
+ * Any path through rectangle can be turned into walk along perimeter and one straight jump of same cost,
+ * so cheapest path of 4-connected maze is still found. Jumps are expanded back to cells by
+ * {@link #toCellPath(int[])}.
+ * It uses given {@link CellHeuristic} between cell and goal cell.
+ *
+ * @author rudani2
+ *
+ */
+class RectangleSearchProblem implements SearchProblem {
+
+    /**
+     * It is four neighbor moves, two jumps across rectangle from corner cell and jump to goal.
+     */
+    private static final int MAX_SUCCESSOR_COUNT = 7;
+
+    private final RectangleDecomposition decomposition;
+    private final CompiledMaze maze;
+    private final int goalCell;
+    private final int goalRectangle;
+    private final CellHeuristic heuristic;
+
+    RectangleSearchProblem(RectangleDecomposition decomposition, CellHeuristic heuristic) {
+        this.decomposition = decomposition;
+        this.maze = decomposition.getMaze();
+        this.goalCell = maze.getGoalCell();
+        // Goal on perimeter is reached by ordinary moves
+        this.goalRectangle = decomposition.isInterior(goalCell) ? decomposition.getRectangle(goalCell)
+                : MazeConstant.NO_CELL;
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public int getStartState() {
+        return maze.getStartCell();
+    }
+
+    @Override
+    public boolean isGoal(int state) {
+        return maze.isGoal(state);
+    }
+
+    @Override
+    public int getSuccessors(int state, int[] successors, int[] costs) {
+        int rectangle = decomposition.getRectangle(state);
+        int row = maze.getRow(state);
+        int column = maze.getColumn(state);
+        int top = decomposition.getTop(rectangle);
+        int bottom = decomposition.getBottom(rectangle);
+        int left = decomposition.getLeft(rectangle);
+        int right = decomposition.getRight(rectangle);
+        int count = 0;
+        if (decomposition.isInterior(state)) {
+            count = addJump(state, maze.getCellId(top, column), successors, costs, count);
+            count = addJump(state, maze.getCellId(bottom, column), successors, costs, count);
+            count = addJump(state, maze.getCellId(row, left), successors, costs, count);
+            count = addJump(state, maze.getCellId(row, right), successors, costs, count);
+        } else {
+            for (int offset : maze.getNeighborOffsets()) {
+                int child = state + offset;
+                if (!maze.isWall(child) && (decomposition.getRectangle(child) != rectangle
+                        || !decomposition.isInterior(child))) {
+                    successors[count] = child;
+                    costs[count++] = MazeConstant.FORWARD_COST;
+                }
+            }
+            // Jump of one step is already a neighbor move
+            if (bottom - top > 1) {
+                if (row == top) {
+                    count = addJump(state, maze.getCellId(bottom, column), successors, costs, count);
+                } else if (row == bottom) {
+                    count = addJump(state, maze.getCellId(top, column), successors, costs, count);
+                }
+            }
+            if (right - left > 1) {
+                if (column == left) {
+                    count = addJump(state, maze.getCellId(row, right), successors, costs, count);
+                } else if (column == right) {
+                    count = addJump(state, maze.getCellId(row, left), successors, costs, count);
+                }
+            }
+        }
+        if (rectangle == goalRectangle && state != goalCell) {
+            count = addJump(state, goalCell, successors, costs, count);
+        }
+        return count;
+    }
+
+    private int addJump(int state, int target, int[] successors, int[] costs, int count) {
+        successors[count] = target;
+        costs[count] = maze.getManhattanDistance(state, target) * MazeConstant.FORWARD_COST;
+        return count + 1;
+    }
+
+    @Override
+    public int getMaxSuccessorCount() {
+        return MAX_SUCCESSOR_COUNT;
+    }
+
+    @Override
+    public long getHeuristic(int state) {
+        return heuristic.getDistance(state, goalCell);
+    }
+
+    @Override
+    public int getCell(int state) {
+        return state;
+    }
+
+    @Override
+    public int getStateCount() {
+        return maze.getCellCount();
+    }
+
+    @Override
+    public int[] getGoalOrder(int[] cellPath) {
+        return null;
+    }
+
+    /**
+     * It is used to expand every jump into cells, moving up or down first and then left or right. Both ends
+     * of jump are in same empty rectangle, so every cell walked is open.
+     */
+    @Override
+    public int[] toCellPath(int[] statePath) {
+        int length = 1;
+        for (int i = 1; i < statePath.length; i++) {
+            length += maze.getManhattanDistance(statePath[i - 1], statePath[i]);
+        }
+        int[] cellPath = new int[length];
+        int position = 0;
+        cellPath[position++] = statePath[0];
+        for (int i = 1; i < statePath.length; i++) {
+            int cell = statePath[i - 1];
+            int rowStep = maze.getRow(statePath[i]) > maze.getRow(cell) ? maze.getWidth() : -maze.getWidth();
+            while (maze.getRow(cell) != maze.getRow(statePath[i])) {
+                cell += rowStep;
+                cellPath[position++] = cell;
+            }
+            int columnStep = maze.getColumn(statePath[i]) > maze.getColumn(cell) ? 1 : -1;
+            while (cell != statePath[i]) {
+                cell += columnStep;
+                cellPath[position++] = cell;
+            }
+        }
+        return cellPath;
+    }
+}
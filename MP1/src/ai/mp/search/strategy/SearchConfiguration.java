@@ -0,0 +1,359 @@
+package ai.mp.search.strategy;
+
+/**
+ * It holds the optional settings passed on command line after maze file name.
+ * Every setting is passed as --name or --name=value
+ * <pre>
+ * --verbose              print the maze while it is loaded, MST cache hits and misses of nearest-mst A *,
+ *                        build time and size of precomputed tables, ghost period and HPA * query time
+ * --mst-cache-size=N     number of goal masks whose MST weight is cached by nearest-mst multi goal heuristic
+ * --multi-goal-solver=S  astar (default) searches maze states, heldkarp solves tour over goal distances,
+ *                        approx improves nearest neighbour tour with 2-opt and Or-opt
+ * --multi-goal-heuristic=H double-mst (default) is twice MST over cell and remaining goals, nearest-mst is
+ *                        distance to nearest goal plus cached MST of remaining goals, which never
+ *                        overestimates but expands far more states, so large dot mazes need --weight with
+ *                        it. It is used by multi goal A * search, Focal, ARA * and SMA * search always use
+ *                        nearest-mst as their bounds need it
+ * --time-budget-ms=N     wall clock time given to approximate multi goal solver, and to ARA * search for
+ *                        improving its first solution
+ * --weight=W             heuristic weight of A * search, at least 1. Path costs at most W times cheapest path
+ * --focal-epsilon=E      focal search expands states within (1 + E) times lowest f. E is at least 0
+ * --initial-weight=W     heuristic weight of first ARA * round, at least 1
+ * --weight-step=D        amount by which ARA * lowers heuristic weight after every round, above 0
+ * --transposition-size=N number of transposition table entries of IDA * search, 0 (default) for none
+ * --node-budget=N        most search nodes kept in memory by SMA * search, at least 2
+ * --open-list=L          heap (default) is indexed 4-ary heap, bucket is bucket queue for small integer
+ *                        priorities. It is used by Greedy and A * search
+ * --cluster-size=N       side of square clusters of HPA * search in cells, at least 2
+ * --heuristic=H          manhattan (default) or alt (landmarks and triangle inequality) heuristic of
+ *                        Greedy and A * search
+ * --landmarks=N          number of landmarks of alt heuristic, at least 1
+ * --turn-database        PENALTY search of A * and IDA * uses exact cost to goal of every (cell, facing),
+ *                        saved next to maze file and reused by later runs. Penalty with our heuristic
+ *                        always uses it
+ * --forward-cost=N       cost of moving to faced cell in PENALTY search, at least 1
+ * --turn-cost=N          cost of turning left or right in place in PENALTY search, at least 1
+ * --block-cells=R:C,...  cells which D * Lite search blocks as Wall after first plan, given as row:column
+ * --unblock-cells=R:C,.. cells which D * Lite search opens as Path after blocking, given as row:column
+ * --flood-fill=F         queue (default) or bitset (64 cells per word operation) BFS used by BFS search,
+ *                        goal distances and landmark distances, or parallel (layers expanded on fork
+ *                        join pool) BFS used by BFS search
+ * --threads=N            number of threads of parallel BFS, at least 1. Number of processors by default
+ * --contract-corridors   PATH finding of A *, Focal, ARA *, IDA * and SMA * search fills dead ends and
+ *                        searches junctions of corridor graph instead of cells
+ * --symmetry-reduction   PATH finding of A *, Focal, ARA *, IDA * and SMA * search expands only perimeters
+ *                        of empty rectangles and jumps across them. Rectangles are saved next to maze file
+ * </pre>
+ *
+ * @author rudani2
+ *
+ */
+public class SearchConfiguration {
+
+    public static final String ASTAR_SOLVER = "astar";
+    public static final String HELD_KARP_SOLVER = "heldkarp";
+    public static final String APPROXIMATE_SOLVER = "approx";
+    public static final String DOUBLE_MST_HEURISTIC = "double-mst";
+    public static final String NEAREST_MST_HEURISTIC = "nearest-mst";
+    public static final String HEAP_OPEN_LIST = "heap";
+    public static final String BUCKET_OPEN_LIST = "bucket";
+    public static final String MANHATTAN_HEURISTIC = "manhattan";
+    public static final String ALT_HEURISTIC = "alt";
+    public static final String QUEUE_FLOOD_FILL = "queue";
+    public static final String BITSET_FLOOD_FILL = "bitset";
+    public static final String PARALLEL_FLOOD_FILL = "parallel";
+
+    private static boolean isVerbose = false;
+    private static int mstCacheSize = MazeConstant.DEFAULT_MST_CACHE_SIZE;
+    private static String multiGoalSolver = ASTAR_SOLVER;
+    private static String multiGoalHeuristic = DOUBLE_MST_HEURISTIC;
+    private static long timeBudgetMillis = MazeConstant.DEFAULT_TIME_BUDGET_MILLIS;
+    private static double weight = MazeConstant.DEFAULT_WEIGHT;
+    private static double focalEpsilon = MazeConstant.DEFAULT_FOCAL_EPSILON;
+    private static double initialWeight = MazeConstant.DEFAULT_INITIAL_WEIGHT;
+    private static double weightStep = MazeConstant.DEFAULT_WEIGHT_STEP;
+    private static int transpositionTableSize = 0;
+    private static int nodeBudget = MazeConstant.DEFAULT_NODE_BUDGET;
+    private static String openList = HEAP_OPEN_LIST;
+    private static int clusterSize = MazeConstant.DEFAULT_CLUSTER_SIZE;
+    private static String heuristic = MANHATTAN_HEURISTIC;
+    private static int landmarkCount = MazeConstant.DEFAULT_LANDMARK_COUNT;
+    private static boolean isTurnDatabase = false;
+    private static int forwardCost = MazeConstant.FORWARD_COST;
+    private static int turnCost = MazeConstant.TURN_COST;
+    private static int[] blockedCells = new int[0];
+    private static int[] unblockedCells = new int[0];
+    private static String floodFill = QUEUE_FLOOD_FILL;
+    private static int threadCount = Runtime.getRuntime().availableProcessors();
+    private static boolean isContractCorridors = false;
+    private static boolean isSymmetryReduction = false;
+
+    private SearchConfiguration() {
+    }
+
+    /**
+     * It is used to parse the optional settings from command line arguments.
+     *
+     * @param args command line arguments
+     * @param firstOption index of first optional argument
+     */
+    public static void parseArguments(String[] args, int firstOption) {
+        for (int i = firstOption; i < args.length; i++) {
+            String argument = args[i];
+            if (!argument.startsWith("--")) {
+                throw new IllegalArgumentException("Invalid option " + argument);
+            }
+            int separator = argument.indexOf('=');
+            String name = separator < 0 ? argument.substring(2) : argument.substring(2, separator);
+            String value = separator < 0 ? null : argument.substring(separator + 1);
+            applyOption(name, value);
+        }
+    }
+
+    private static void applyOption(String name, String value) {
+        switch (name) {
+            case "verbose" :
+                isVerbose = true;
+                break;
+            case "mst-cache-size" :
+                mstCacheSize = parseInt(name, value);
+                break;
+            case "multi-goal-solver" :
+                multiGoalSolver = parseChoice(name, value, ASTAR_SOLVER, HELD_KARP_SOLVER, APPROXIMATE_SOLVER);
+                break;
+            case "multi-goal-heuristic" :
+                multiGoalHeuristic = parseChoice(name, value, DOUBLE_MST_HEURISTIC, NEAREST_MST_HEURISTIC);
+                break;
+            case "time-budget-ms" :
+                timeBudgetMillis = parseInt(name, value);
+                break;
+            case "weight" :
+                weight = parseDouble(name, value, 1.0);
+                break;
+            case "focal-epsilon" :
+                focalEpsilon = parseDouble(name, value, 0.0);
+                break;
+            case "initial-weight" :
+                initialWeight = parseDouble(name, value, 1.0);
+                break;
+            case "weight-step" :
+                weightStep = parseDouble(name, value, Double.MIN_VALUE);
+                break;
+            case "transposition-size" :
+                transpositionTableSize = parseInt(name, value);
+                break;
+            case "node-budget" :
+                nodeBudget = parseInt(name, value);
+                if (nodeBudget < 2) {
+                    throw new IllegalArgumentException("Option --" + name + " must be at least 2");
+                }
+                break;
+            case "open-list" :
+                openList = parseChoice(name, value, HEAP_OPEN_LIST, BUCKET_OPEN_LIST);
+                break;
+            case "cluster-size" :
+                clusterSize = parseInt(name, value);
+                if (clusterSize < 2) {
+                    throw new IllegalArgumentException("Option --" + name + " must be at least 2");
+                }
+                break;
+            case "heuristic" :
+                heuristic = parseChoice(name, value, MANHATTAN_HEURISTIC, ALT_HEURISTIC);
+                break;
+            case "landmarks" :
+                landmarkCount = parseInt(name, value);
+                if (landmarkCount < 1) {
+                    throw new IllegalArgumentException("Option --" + name + " must be at least 1");
+                }
+                break;
+            case "turn-database" :
+                isTurnDatabase = true;
+                break;
+            case "forward-cost" :
+                forwardCost = parseInt(name, value);
+                if (forwardCost < 1) {
+                    throw new IllegalArgumentException("Option --" + name + " must be at least 1");
+                }
+                break;
+            case "turn-cost" :
+                turnCost = parseInt(name, value);
+                if (turnCost < 1) {
+                    throw new IllegalArgumentException("Option --" + name + " must be at least 1");
+                }
+                break;
+            case "block-cells" :
+                blockedCells = parseCells(name, value);
+                break;
+            case "unblock-cells" :
+                unblockedCells = parseCells(name, value);
+                break;
+            case "flood-fill" :
+                floodFill = parseChoice(name, value, QUEUE_FLOOD_FILL, BITSET_FLOOD_FILL, PARALLEL_FLOOD_FILL);
+                break;
+            case "threads" :
+                threadCount = parseInt(name, value);
+                if (threadCount < 1) {
+                    throw new IllegalArgumentException("Option --" + name + " must be at least 1");
+                }
+                break;
+            case "contract-corridors" :
+                isContractCorridors = true;
+                break;
+            case "symmetry-reduction" :
+                isSymmetryReduction = true;
+                break;
+            default :
+                throw new IllegalArgumentException("Unknown option --" + name);
+        }
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option --" + name + " expects integer value");
+        }
+    }
+
+    private static double parseDouble(String name, String value, double minimum) {
+        double number;
+        try {
+            number = Double.parseDouble(value);
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("Option --" + name + " expects decimal value");
+        }
+        if (!(number >= minimum) || Double.isInfinite(number)) {
+            throw new IllegalArgumentException("Option --" + name + " must be at least " + minimum);
+        }
+        return number;
+    }
+
+    /**
+     * It is used to parse comma separated row:column cells.
+     *
+     * @param name
+     * @param value
+     * @return int[] row and column of every cell, one after other
+     */
+    private static int[] parseCells(String name, String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Option --" + name + " expects row:column cells");
+        }
+        String[] cells = value.split(",");
+        int[] rowColumns = new int[cells.length * 2];
+        for (int i = 0; i < cells.length; i++) {
+            String[] rowColumn = cells[i].split(":");
+            if (rowColumn.length != 2) {
+                throw new IllegalArgumentException("Option --" + name + " expects row:column cells");
+            }
+            rowColumns[2 * i] = parseInt(name, rowColumn[0].trim());
+            rowColumns[(2 * i) + 1] = parseInt(name, rowColumn[1].trim());
+        }
+        return rowColumns;
+    }
+
+    private static String parseChoice(String name, String value, String... choices) {
+        for (String choice : choices) {
+            if (choice.equals(value)) {
+                return choice;
+            }
+        }
+        throw new IllegalArgumentException("Option --" + name + " expects one of " + String.join(", ", choices));
+    }
+
+    public static boolean isVerbose() {
+        return isVerbose;
+    }
+
+    public static int getMstCacheSize() {
+        return mstCacheSize;
+    }
+
+    public static String getMultiGoalSolver() {
+        return multiGoalSolver;
+    }
+
+    public static String getMultiGoalHeuristic() {
+        return multiGoalHeuristic;
+    }
+
+    public static long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    public static double getWeight() {
+        return weight;
+    }
+
+    public static double getFocalEpsilon() {
+        return focalEpsilon;
+    }
+
+    public static double getInitialWeight() {
+        return initialWeight;
+    }
+
+    public static double getWeightStep() {
+        return weightStep;
+    }
+
+    public static int getTranspositionTableSize() {
+        return transpositionTableSize;
+    }
+
+    public static int getNodeBudget() {
+        return nodeBudget;
+    }
+
+    public static String getOpenList() {
+        return openList;
+    }
+
+    public static int getClusterSize() {
+        return clusterSize;
+    }
+
+    public static String getHeuristic() {
+        return heuristic;
+    }
+
+    public static int getLandmarkCount() {
+        return landmarkCount;
+    }
+
+    public static boolean isTurnDatabase() {
+        return isTurnDatabase;
+    }
+
+    public static int getForwardCost() {
+        return forwardCost;
+    }
+
+    public static int getTurnCost() {
+        return turnCost;
+    }
+
+    public static int[] getBlockedCells() {
+        return blockedCells;
+    }
+
+    public static int[] getUnblockedCells() {
+        return unblockedCells;
+    }
+
+    public static String getFloodFill() {
+        return floodFill;
+    }
+
+    public static int getThreadCount() {
+        return threadCount;
+    }
+
+    public static boolean isContractCorridors() {
+        return isContractCorridors;
+    }
+
+    public static boolean isSymmetryReduction() {
+        return isSymmetryReduction;
+    }
+}
@@ -43,6 +43,102 @@ abstract class SearchOperation {
      */
     public abstract String getSearchStrategyName();
 
+    /**
+     * It is used to get the metrics of solution found by search strategy
+     * @return MazeMetrics
+     */
+    public MazeMetrics getMetrics() {
+        return new MazeMetrics(getStepCost(), getSolutionCost(), MazeConstant.DEFAULT_PENALTY);
+    }
+
+    /**
+     * It is used to create the open list selected by --open-list.
+     *
+     * @param capacity expected number of ids
+     * @return PriorityOpenList
+     */
+    public PriorityOpenList newOpenList(int capacity) {
+        if (SearchConfiguration.BUCKET_OPEN_LIST.equals(SearchConfiguration.getOpenList())) {
+            return new BucketQueue(capacity);
+        }
+        return new IndexedMinHeap(capacity);
+    }
+
+    /**
+     * It is used to create the cell heuristic selected by --heuristic.
+     *
+     * @param maze
+     * @return CellHeuristic
+     */
+    public CellHeuristic newCellHeuristic(CompiledMaze maze) {
+        if (SearchConfiguration.ALT_HEURISTIC.equals(SearchConfiguration.getHeuristic())) {
+            return LandmarkHeuristic.getInstance(maze, SearchConfiguration.getLandmarkCount());
+        }
+        return new ManhattanHeuristic(maze);
+    }
+
+    /**
+     * It is used to create single goal PATH finding problem, which searches junctions of corridor graph if
+     * --contract-corridors is set, perimeters of empty rectangles if --symmetry-reduction is set and every
+     * cell otherwise.
+     *
+     * @param maze
+     * @param heuristic
+     * @return SearchProblem
+     */
+    public SearchProblem newPathFindProblem(CompiledMaze maze, CellHeuristic heuristic) {
+        if (SearchConfiguration.isContractCorridors() && SearchConfiguration.isSymmetryReduction()) {
+            throw new IllegalArgumentException("Options --contract-corridors and --symmetry-reduction can not be"
+                    + " used together");
+        }
+        if (SearchConfiguration.isSymmetryReduction()) {
+            return new RectangleSearchProblem(RectangleDecomposition.getInstance(maze, Preprocessing.getMazeFile())
+                    , heuristic);
+        }
+        if (SearchConfiguration.isContractCorridors()) {
+            return new CorridorSearchProblem(CorridorGraph.getInstance(maze), heuristic);
+        }
+        return new GridSearchProblem(maze, heuristic);
+    }
+
+    /**
+     * It is used to create PENALTY (turn cost) problem on state lattice with move costs from --forward-cost
+     * and --turn-cost. PENALTY uses manhattan distance plus turns needed to face goal as heuristic, while
+     * Penalty with our heuristic, or PENALTY with --turn-database, uses exact cost to goal of
+     * {@link TurnHeuristicDatabase}.
+     *
+     * @param maze
+     * @return TurnCostSearchProblem
+     */
+    public TurnCostSearchProblem newTurnCostProblem(CompiledMaze maze) {
+        StateLattice lattice = StateLattice.getInstance(maze, SearchConfiguration.getForwardCost()
+                , SearchConfiguration.getTurnCost());
+        if (isTurnDatabase()) {
+            return new TurnCostSearchProblem(lattice, TurnHeuristicDatabase.getInstance(lattice
+                    , Preprocessing.getMazeFile()));
+        }
+        return new TurnCostSearchProblem(lattice);
+    }
+
+    /**
+     * It is used to create PENALTY (turn cost) problem which generates moves on the fly, so that it keeps no
+     * maze sized table. Exact heuristic of turn database is built over state lattice, so lattice problem
+     * is created if it is used.
+     *
+     * @param maze
+     * @return TurnCostSearchProblem
+     */
+    public TurnCostSearchProblem newLatticeFreeTurnCostProblem(CompiledMaze maze) {
+        if (isTurnDatabase()) {
+            return newTurnCostProblem(maze);
+        }
+        return new TurnCostSearchProblem(maze, SearchConfiguration.getForwardCost(), SearchConfiguration.getTurnCost());
+    }
+
+    private static boolean isTurnDatabase() {
+        return SearchConfiguration.isTurnDatabase() || Preprocessing.isOurHeuristic();
+    }
+
     /**
      * It is used to check if child is valid or not. It checks whether child position
      * is a Wall or already visited node. Wall is represented as -1, visited node as 4
@@ -61,28 +157,73 @@ abstract class SearchOperation {
     }
 
     /**
-     * It is used to draw solution path from goal state to start state.
-     * 
-     * @param childNode
-     * @return long
+     * It is used to build the solution path by following the parent links from goal cell to start cell.
+     * Start cell is its own parent.
+     *
+     * @param parent
+     * @param goalCell
+     * @return cell ids from start to goal
      */
-    public MazeMetrics drawSolutionPath(char[][] solutionMaze, Position childNode) {
-        long stepCost = 0L;
-        long solutionCost = 0L;
-        long penalty = 0L;
-        while (childNode != null && childNode.getParent() != null) {
-            if (solutionMaze[childNode.getX()][childNode.getY()] < 48) {
-                solutionMaze[childNode.getX()][childNode.getY()] = '.';
+    public int[] buildSolutionPath(int[] parent, int goalCell) {
+        int length = 1;
+        int cellId = goalCell;
+        while (parent[cellId] != cellId) {
+            cellId = parent[cellId];
+            length += 1;
+        }
+        int[] path = new int[length];
+        cellId = goalCell;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = cellId;
+            cellId = parent[cellId];
+        }
+        return path;
+    }
+
+    /**
+     * It is used to build the solution path from distance map of {@link FloodFill} by stepping back from
+     * goal cell to neighbor one layer closer to start cell. Neighbors are tried in UP, DOWN, LEFT, RIGHT
+     * order, so same distance map always gives same path.
+     *
+     * @param maze
+     * @param distance
+     * @param goalCell reached goal cell
+     * @return cell ids from start to goal
+     */
+    public int[] buildSolutionPath(CompiledMaze maze, int[] distance, int goalCell) {
+        int[] path = new int[distance[goalCell] + 1];
+        int cellId = goalCell;
+        for (int i = path.length - 1; i > 0; i--) {
+            path[i] = cellId;
+            for (int offset : maze.getNeighborOffsets()) {
+                if (distance[cellId + offset] == i - 1) {
+                    cellId += offset;
+                    break;
+                }
             }
-            solutionCost += childNode.getCost();
-            penalty += childNode.getPenalty();
-            //System.out.println("child node " + childNode + "approach cost " + childNode.getApproachableCost());
-            childNode = childNode.getParent();
-            stepCost += 1;
         }
-        if (childNode != null) {
-            penalty += childNode.getPenalty();
+        path[0] = cellId;
+        return path;
+    }
+
+    /**
+     * It is used to label the goals in the order they are covered. Goals are labelled as 1 to 9,
+     * then a to z and then A onwards.
+     *
+     * @param solutionMaze
+     * @param maze
+     * @param goalOrder goal cells in covered order
+     */
+    public void drawGoalOrder(char[][] solutionMaze, CompiledMaze maze, int[] goalOrder) {
+        int index = 49;
+        for (int goalCell : goalOrder) {
+            solutionMaze[maze.getRow(goalCell)][maze.getColumn(goalCell)] = (char) index;
+            index += 1;
+            if (index == 58) {
+                index = 97;
+            } else if (index == 123) {
+                index = 65;
+            }
         }
-        return new MazeMetrics(stepCost, solutionCost, penalty);
     }
 }
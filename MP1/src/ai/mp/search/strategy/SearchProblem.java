@@ -0,0 +1,90 @@
+package ai.mp.search.strategy;
+
+/**
+ * It specify the contract of state space searched by strategies which work on int states.
+ * Every state is identified by dense int id starting from 0, so strategies can keep cost and parent
+ * of states in int arrays.
+ *
+ * @author rudani2
+ *
+ */
+interface SearchProblem {
+
+    /**
+     * It is used to get the state where search starts.
+     *
+     * @return int
+     */
+    int getStartState();
+
+    /**
+     * It is used to check whether given state is goal state.
+     *
+     * @param state
+     * @return boolean
+     */
+    boolean isGoal(int state);
+
+    /**
+     * It is used to get the successors of given state along with cost of moving to each of them.
+     *
+     * @param state
+     * @param successors buffer of at least {@link #getMaxSuccessorCount()} length
+     * @param costs buffer of at least {@link #getMaxSuccessorCount()} length
+     * @return int number of successors filled in buffers
+     */
+    int getSuccessors(int state, int[] successors, int[] costs);
+
+    /**
+     * It is used to get the largest number of successors of any state.
+     *
+     * @return int
+     */
+    int getMaxSuccessorCount();
+
+    /**
+     * It is used to get admissible estimate of cost from given state to goal state.
+     *
+     * @param state
+     * @return long
+     */
+    long getHeuristic(int state);
+
+    /**
+     * It is used to get the maze cell of given state.
+     *
+     * @param state
+     * @return int
+     */
+    int getCell(int state);
+
+    /**
+     * It is used to get the number of state ids handed out so far. Every state id is less than it.
+     *
+     * @return int
+     */
+    int getStateCount();
+
+    /**
+     * It is used to get the goal cells in order they are covered along given cell path.
+     *
+     * @param cellPath
+     * @return int[] goal cells or null if goals are not labelled
+     */
+    int[] getGoalOrder(int[] cellPath);
+
+    /**
+     * It is used to get the maze cells walked along given state path. Every state stands on one cell and
+     * moves to neighbor cell or turns in place, unless problem overrides it with moves which skip cells.
+     *
+     * @param statePath
+     * @return int[] cell ids from first to last state
+     */
+    default int[] toCellPath(int[] statePath) {
+        int[] cellPath = new int[statePath.length];
+        for (int i = 0; i < statePath.length; i++) {
+            cellPath[i] = getCell(statePath[i]);
+        }
+        return cellPath;
+    }
+}
@@ -0,0 +1,452 @@
+package ai.mp.search.strategy;
+
+import java.util.Arrays;
+
+/**
+ * It is used to implement Simplified Memory Bounded A * (SMA *) strategy. At most node budget
+ * search nodes are kept in memory. Nodes are kept in preallocated arrays indexed by node slot.
+ * <pre>
+ * Successor f    - every node keeps f of each of its successors, so successor can be dropped from
+ *                  memory and its f is still known to parent
+ * Open list      - nodes with some successor not in memory, sorted by lowest f of such successor
+ *                  and then deepest. Node not yet expanded is sorted by its own f
+ * Leaf list      - nodes with no successor in memory, sorted by highest f and then shallowest
+ * List key       - both lists are {@link IndexedMinHeap} over node slot, keyed by f in high bits and
+ *                  depth in low bits, so no object is allocated per push or remove
+ * Backed up f    - f of node is lowest f of its successors once they are known, and change of f
+ *                  is passed up to parent
+ * State buckets  - nodes in memory chained by state, so successor whose state is already in memory
+ *                  with no higher g is never brought into memory
+ * </pre>
+ * Each expansion brings cheapest successor of best open node into memory. When budget is full, worst
+ * leaf is dropped. Successor which does not fit in memory even after dropping gets infinite f.
+ * It works on PATH finding and multiple goal search.
+ *
+ * @author rudani2
+ *
+ */
+public class SimplifiedMemoryBoundedAStar extends SearchOperation {
+
+    private static final long INFINITE_COST = Long.MAX_VALUE;
+    private static final int NOT_IN_MEMORY = -1;
+
+    private final CompiledMaze maze;
+    private final int nodeBudget;
+    private char[][] solutionMaze;
+    private int[] solutionPath;
+    private int[] goalOrder;
+    private long nodesExpanded = 0L;
+    private long stepCost = 0L;
+    private long solutionCost = 0L;
+    private int peakNodeCount = 0;
+
+    // Node arrays indexed by node slot
+    private SearchProblem problem;
+    private int maxSuccessorCount;
+    private int[] nodeState;
+    private int[] nodeParent;
+    private int[] nodeIndexInParent;
+    private int[] nodeCost;
+    private int[] nodeDepth;
+    private long[] nodeF;
+    private long[] openF;
+    private int[] memoryChildCount;
+    /**
+     * It holds the number of successors of node, or -1 till node is expanded first time.
+     */
+    private int[] successorCount;
+    private int[] successorState;
+    private int[] successorMoveCost;
+    private long[] successorF;
+    private int[] successorNode;
+    private int[] stateBucket;
+    private int[] nextInBucket;
+    private int[] freeSlots;
+    private int freeSlotCount;
+    private int nodeCount = 0;
+    private int depthBits;
+    private IndexedMinHeap openNodes;
+    private IndexedMinHeap leafNodes;
+
+    SimplifiedMemoryBoundedAStar(CompiledMaze maze) {
+        this.maze = maze;
+        this.nodeBudget = SearchConfiguration.getNodeBudget();
+    }
+
+    @Override
+    public void findPath() {
+        if (Preprocessing.isPathFind()) {
+            findPath(newPathFindProblem(maze, new ManhattanHeuristic(maze)));
+        } else if (Preprocessing.isMultipleGoal()) {
+            MultiGoalSearchProblem multiGoalProblem = new MultiGoalSearchProblem(maze
+                    , SearchConfiguration.NEAREST_MST_HEURISTIC);
+            // Some goal may be walled off from start position, then no path can cover all the goals
+            if (multiGoalProblem.areGoalsReachable()) {
+                findPath(multiGoalProblem);
+            }
+        } else {
+            throw new IllegalArgumentException("SMA * supports only PATH finding and Multiple GOAL");
+        }
+    }
+
+    /**
+     * It is used to find the path from start state to goal state of given problem within node budget.
+     * Open list runs empty when goal can not be reached, or when budget is too small to hold path to it.
+     *
+     * @param searchProblem
+     */
+    private void findPath(SearchProblem searchProblem) {
+        allocateNodes(searchProblem);
+        int root = createNode(problem.getStartState(), NOT_IN_MEMORY, 0, 0, problem.getHeuristic(problem.getStartState()));
+        refreshOpen(root);
+        addToLeaves(root);
+        int[] successors = new int[maxSuccessorCount];
+        int[] moveCosts = new int[maxSuccessorCount];
+
+        while (!openNodes.isEmpty()) {
+            int node = openNodes.peek();
+            if (problem.isGoal(nodeState[node])) {
+                buildSolution(node);
+                return;
+            }
+            if (successorCount[node] == NOT_IN_MEMORY) {
+                expand(node, successors, moveCosts);
+            }
+            int index = getCheapestForgottenSuccessor(node);
+            if (index == NOT_IN_MEMORY) {
+                // Dead end
+                refreshOpen(node);
+                backUp(node);
+                continue;
+            }
+            int slot = (node * maxSuccessorCount) + index;
+            if (isReachedCheaper(successorState[slot], nodeCost[node] + successorMoveCost[slot])) {
+                // Same state is reached in memory through path which is not costlier
+                successorF[slot] = INFINITE_COST;
+            } else if (nodeCount == nodeBudget && !dropWorstLeaf(node)) {
+                // Only current path is in memory, so successor can not be kept
+                successorF[slot] = INFINITE_COST;
+            }
+            if (successorF[slot] != INFINITE_COST) {
+                int child = createNode(successorState[slot], node, index
+                        , nodeCost[node] + successorMoveCost[slot], successorF[slot]);
+                successorNode[slot] = child;
+                removeFromLeaves(node);
+                memoryChildCount[node] += 1;
+                refreshOpen(child);
+                addToLeaves(child);
+            }
+            // Node stays open only while some successor is not in memory
+            refreshOpen(node);
+            backUp(node);
+        }
+        System.out.println("No solution found within node budget " + nodeBudget);
+    }
+
+    /**
+     * It is used to generate every successor of node and remember f of each. Successor whose state is
+     * already in memory with no higher g gets infinite f. f of successor is never below f of node.
+     *
+     * @param node
+     * @param successors
+     * @param moveCosts
+     */
+    private void expand(int node, int[] successors, int[] moveCosts) {
+        nodesExpanded += 1;
+        int count = problem.getSuccessors(nodeState[node], successors, moveCosts);
+        int base = node * maxSuccessorCount;
+        for (int i = 0; i < count; i++) {
+            successorState[base + i] = successors[i];
+            successorMoveCost[base + i] = moveCosts[i];
+            successorNode[base + i] = NOT_IN_MEMORY;
+            successorF[base + i] = isReachedCheaper(successors[i], nodeCost[node] + moveCosts[i]) ? INFINITE_COST
+                    : Math.max(nodeF[node], nodeCost[node] + moveCosts[i] + problem.getHeuristic(successors[i]));
+        }
+        successorCount[node] = count;
+    }
+
+    /**
+     * It is used to check whether node of given state is in memory with cost no higher than given cost.
+     * Every path through such successor costs no less than path through node in memory, which stays
+     * represented by f kept in its ancestors even when it is dropped.
+     *
+     * @param state
+     * @param cost
+     * @return boolean
+     */
+    private boolean isReachedCheaper(int state, int cost) {
+        for (int node = stateBucket[getBucket(state)]; node != NOT_IN_MEMORY; node = nextInBucket[node]) {
+            if (nodeState[node] == state && nodeCost[node] <= cost) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int getBucket(int state) {
+        return (state * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(stateBucket.length));
+    }
+
+    /**
+     * It is used to find cheapest successor of node which is not in memory and can still be reached.
+     *
+     * @param node
+     * @return int successor index or -1 if there is none
+     */
+    private int getCheapestForgottenSuccessor(int node) {
+        int base = node * maxSuccessorCount;
+        int cheapest = NOT_IN_MEMORY;
+        for (int i = 0; i < successorCount[node]; i++) {
+            if (successorNode[base + i] == NOT_IN_MEMORY && successorF[base + i] != INFINITE_COST
+                    && (cheapest == NOT_IN_MEMORY || successorF[base + i] < successorF[base + cheapest])) {
+                cheapest = i;
+            }
+        }
+        return cheapest;
+    }
+
+    /**
+     * It is used to pass f of node up to its ancestors. f of expanded node is lowest f of its successors.
+     *
+     * @param node
+     */
+    private void backUp(int node) {
+        while (node != NOT_IN_MEMORY && successorCount[node] != NOT_IN_MEMORY) {
+            long lowestF = INFINITE_COST;
+            int base = node * maxSuccessorCount;
+            for (int i = 0; i < successorCount[node]; i++) {
+                lowestF = Math.min(lowestF, successorF[base + i]);
+            }
+            if (lowestF == nodeF[node]) {
+                return;
+            }
+            updateF(node, lowestF);
+            node = nodeParent[node];
+        }
+    }
+
+    /**
+     * It is used to set f of node and keep the f remembered by parent and node lists in order.
+     *
+     * @param node
+     * @param f
+     */
+    private void updateF(int node, long f) {
+        nodeF[node] = f;
+        if (leafNodes.contains(node)) {
+            leafNodes.update(node, getLeafKey(node));
+        }
+        if (nodeParent[node] != NOT_IN_MEMORY) {
+            successorF[(nodeParent[node] * maxSuccessorCount) + nodeIndexInParent[node]] = f;
+        }
+    }
+
+    /**
+     * It is used to put node in open list with f of next successor it can bring into memory, or
+     * take it out of open list when it has none.
+     *
+     * @param node
+     */
+    private void refreshOpen(int node) {
+        if (successorCount[node] == NOT_IN_MEMORY) {
+            openF[node] = nodeF[node];
+        } else {
+            int index = getCheapestForgottenSuccessor(node);
+            if (index == NOT_IN_MEMORY) {
+                openNodes.remove(node);
+                return;
+            }
+            openF[node] = successorF[(node * maxSuccessorCount) + index];
+        }
+        openNodes.update(node, getOpenKey(node));
+    }
+
+    /**
+     * It is used to get the key of node in open list, lowest f and then deepest first.
+     *
+     * @param node
+     * @return long
+     */
+    private long getOpenKey(int node) {
+        return (getKeyF(openF[node]) << depthBits) | (nodeBudget - 1 - nodeDepth[node]);
+    }
+
+    /**
+     * It is used to get the key of node in leaf list, highest f and then shallowest first.
+     *
+     * @param node
+     * @return long
+     */
+    private long getLeafKey(int node) {
+        return ((getKeyF(INFINITE_COST) - getKeyF(nodeF[node])) << depthBits) | nodeDepth[node];
+    }
+
+    /**
+     * It is used to fit f in the bits left above depth. Only infinite f is large enough to be cut.
+     *
+     * @param f
+     * @return long
+     */
+    private long getKeyF(long f) {
+        return Math.min(f, INFINITE_COST >>> depthBits);
+    }
+
+    /**
+     * It is used to drop worst leaf other than given node from memory. Its f stays with its parent,
+     * which is opened again since one of its successors is no more in memory.
+     *
+     * @param keepNode node being expanded
+     * @return boolean false if there is no leaf to drop
+     */
+    private boolean dropWorstLeaf(int keepNode) {
+        int leaf = leafNodes.peek();
+        if (leaf == keepNode) {
+            // Node being expanded stays leaf, so next worst leaf is looked up past it
+            long keepKey = leafNodes.getPriority(keepNode);
+            leafNodes.remove(keepNode);
+            leaf = leafNodes.isEmpty() ? NOT_IN_MEMORY : leafNodes.peek();
+            leafNodes.offer(keepNode, keepKey);
+        }
+        if (leaf == NOT_IN_MEMORY || nodeParent[leaf] == NOT_IN_MEMORY) {
+            return false;
+        }
+        int parent = nodeParent[leaf];
+        openNodes.remove(leaf);
+        removeFromLeaves(leaf);
+        successorNode[(parent * maxSuccessorCount) + nodeIndexInParent[leaf]] = NOT_IN_MEMORY;
+        memoryChildCount[parent] -= 1;
+        if (memoryChildCount[parent] == 0) {
+            addToLeaves(parent);
+        }
+        refreshOpen(parent);
+        unlinkFromBucket(leaf);
+        freeSlots[freeSlotCount++] = leaf;
+        nodeCount -= 1;
+        return true;
+    }
+
+    private int createNode(int state, int parent, int indexInParent, int cost, long f) {
+        int node = freeSlots[--freeSlotCount];
+        nodeState[node] = state;
+        nodeParent[node] = parent;
+        nodeIndexInParent[node] = indexInParent;
+        nodeCost[node] = cost;
+        nodeDepth[node] = parent == NOT_IN_MEMORY ? 0 : nodeDepth[parent] + 1;
+        nodeF[node] = f;
+        memoryChildCount[node] = 0;
+        successorCount[node] = NOT_IN_MEMORY;
+        int bucket = getBucket(state);
+        nextInBucket[node] = stateBucket[bucket];
+        stateBucket[bucket] = node;
+        nodeCount += 1;
+        peakNodeCount = Math.max(peakNodeCount, nodeCount);
+        return node;
+    }
+
+    private void unlinkFromBucket(int node) {
+        int bucket = getBucket(nodeState[node]);
+        if (stateBucket[bucket] == node) {
+            stateBucket[bucket] = nextInBucket[node];
+            return;
+        }
+        int previous = stateBucket[bucket];
+        while (nextInBucket[previous] != node) {
+            previous = nextInBucket[previous];
+        }
+        nextInBucket[previous] = nextInBucket[node];
+    }
+
+    private void allocateNodes(SearchProblem searchProblem) {
+        this.problem = searchProblem;
+        this.maxSuccessorCount = problem.getMaxSuccessorCount();
+        nodeState = new int[nodeBudget];
+        nodeParent = new int[nodeBudget];
+        nodeIndexInParent = new int[nodeBudget];
+        nodeCost = new int[nodeBudget];
+        nodeDepth = new int[nodeBudget];
+        nodeF = new long[nodeBudget];
+        openF = new long[nodeBudget];
+        memoryChildCount = new int[nodeBudget];
+        successorCount = new int[nodeBudget];
+        successorState = new int[nodeBudget * maxSuccessorCount];
+        successorMoveCost = new int[nodeBudget * maxSuccessorCount];
+        successorF = new long[nodeBudget * maxSuccessorCount];
+        successorNode = new int[nodeBudget * maxSuccessorCount];
+        Arrays.fill(successorNode, NOT_IN_MEMORY);
+        stateBucket = new int[Math.max(2, Integer.highestOneBit(nodeBudget - 1) << 1)];
+        Arrays.fill(stateBucket, NOT_IN_MEMORY);
+        nextInBucket = new int[nodeBudget];
+        // Lowest slot is handed out first
+        freeSlots = new int[nodeBudget];
+        for (int i = 0; i < nodeBudget; i++) {
+            freeSlots[i] = nodeBudget - 1 - i;
+        }
+        freeSlotCount = nodeBudget;
+        // Depth of node in memory is below node budget
+        depthBits = 32 - Integer.numberOfLeadingZeros(nodeBudget - 1);
+        openNodes = new IndexedMinHeap(nodeBudget);
+        leafNodes = new IndexedMinHeap(nodeBudget);
+    }
+
+    private void addToLeaves(int node) {
+        leafNodes.offer(node, getLeafKey(node));
+    }
+
+    private boolean removeFromLeaves(int node) {
+        return leafNodes.remove(node);
+    }
+
+    /**
+     * It is used to build solution path by following parent slots from goal node.
+     *
+     * @param goalNode
+     */
+    private void buildSolution(int goalNode) {
+        int[] statePath = new int[nodeDepth[goalNode] + 1];
+        for (int node = goalNode; node != NOT_IN_MEMORY; node = nodeParent[node]) {
+            statePath[nodeDepth[node]] = nodeState[node];
+        }
+        int[] path = problem.toCellPath(statePath);
+        this.solutionPath = path;
+        this.stepCost = path.length - 1;
+        this.solutionCost = nodeCost[goalNode];
+        this.goalOrder = problem.getGoalOrder(path);
+    }
+
+    @Override
+    public char[][] getSolutionMaze() {
+        if (solutionMaze == null) {
+            solutionMaze = maze.toSolutionMatrix(solutionPath);
+            if (goalOrder != null) {
+                drawGoalOrder(solutionMaze, maze, goalOrder);
+            }
+        }
+        return solutionMaze;
+    }
+
+    @Override
+    public long getStepCost() {
+        return stepCost;
+    }
+
+    @Override
+    public long getSolutionCost() {
+        return solutionCost;
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public String getSearchStrategyName() {
+        return "SMA *";
+    }
+
+    @Override
+    public MazeMetrics getMetrics() {
+        return new MazeMetrics(stepCost, solutionCost, MazeConstant.DEFAULT_PENALTY
+                , MazeConstant.DEFAULT_WEIGHT, peakNodeCount);
+    }
+}
@@ -0,0 +1,19 @@
+package ai.mp.search.strategy;
+
+/**
+ * It is used to receive every improved solution published by anytime search strategy.
+ *
+ * @author rudani2
+ *
+ */
+interface SolutionListener {
+
+    /**
+     * It is called every time search finds cheaper solution.
+     *
+     * @param cellPath cell ids from start to goal
+     * @param cost solution cost
+     * @param bound solution cost is at most bound times cheapest solution cost
+     */
+    void onSolution(int[] cellPath, long cost, double bound);
+}
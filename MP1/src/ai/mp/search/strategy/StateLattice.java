@@ -0,0 +1,163 @@
+package ai.mp.search.strategy;
+
+/**
+ * It is the (cell, facing) state lattice of {@link CompiledMaze} used by PENALTY search. State is
+ * (cell id * 4) + facing, where facing is index of UP, DOWN, LEFT, RIGHT neighbor offset. Every state has
+ * at most three moves, which are kept in one int table built once per maze, so search reads next states
+ * from table and does not create any object per state.
+ * <pre>
+ * successor - indexed by (state * 3) + move, where move 0 is forward and moves 1 and 2 turn left or
+ *             right in place. It holds the reached state, or {@link #NO_STATE} if faced cell is wall
+ * moveCost  - cost of every move, forward cost for move 0 and turn cost for moves 1 and 2
+ * </pre>
+ * Every move is reversed by a move of same cost. Turn is reversed by other turn, and forward move is
+ * reversed by forward move while facing opposite way, so predecessors are read from same table.
+ *
+ * @author rudani2
+ *
+ */
+class StateLattice {
+
+    public static final int NO_STATE = -1;
+    public static final int DIRECTION_COUNT = 4;
+    public static final int MOVE_COUNT = 3;
+    static final int UP = MazeConstant.UP_DIRECTION - 1;
+    static final int DOWN = MazeConstant.DOWN_DIRECTION - 1;
+    static final int LEFT = MazeConstant.LEFT_DIRECTION - 1;
+    static final int RIGHT = MazeConstant.RIGHT_DIRECTION - 1;
+    /**
+     * It holds the two facings reached by turning left or right from every facing.
+     */
+    static final int[][] TURNS = { { LEFT, RIGHT }, { LEFT, RIGHT }, { UP, DOWN }, { UP, DOWN } };
+    private static final int[] OPPOSITE = { DOWN, UP, RIGHT, LEFT };
+
+    private static StateLattice cachedLattice;
+
+    private final CompiledMaze maze;
+    private final int forwardCost;
+    private final int turnCost;
+    private final int[] moveCost;
+    private final int[] successor;
+
+    private StateLattice(CompiledMaze maze, int forwardCost, int turnCost) {
+        if (maze.getCellCount() > (Integer.MAX_VALUE / (DIRECTION_COUNT * MOVE_COUNT))) {
+            throw new IllegalArgumentException("Maze is too large to search with facing");
+        }
+        this.maze = maze;
+        this.forwardCost = forwardCost;
+        this.turnCost = turnCost;
+        this.moveCost = new int[] { forwardCost, turnCost, turnCost };
+        this.successor = new int[maze.getCellCount() * DIRECTION_COUNT * MOVE_COUNT];
+        int[] neighborOffsets = maze.getNeighborOffsets();
+        for (int cell = 0; cell < maze.getCellCount(); cell++) {
+            for (int facing = 0; facing < DIRECTION_COUNT; facing++) {
+                int slot = getState(cell, facing) * MOVE_COUNT;
+                int forwardCell = cell + neighborOffsets[facing];
+                // Walls are never entered, so their moves are never read
+                if (maze.isWall(cell) || maze.isWall(forwardCell)) {
+                    successor[slot] = NO_STATE;
+                } else {
+                    successor[slot] = getState(forwardCell, facing);
+                }
+                successor[slot + 1] = getState(cell, TURNS[facing][0]);
+                successor[slot + 2] = getState(cell, TURNS[facing][1]);
+            }
+        }
+    }
+
+    /**
+     * It is used to get the lattice of given maze and move costs. Lattice is built once and reused till
+     * other maze or costs are asked.
+     *
+     * @param maze
+     * @param forwardCost cost to move to faced cell
+     * @param turnCost cost to turn left or right in place
+     * @return StateLattice
+     */
+    static synchronized StateLattice getInstance(CompiledMaze maze, int forwardCost, int turnCost) {
+        if (cachedLattice == null || cachedLattice.maze != maze || cachedLattice.forwardCost != forwardCost
+                || cachedLattice.turnCost != turnCost) {
+            long startTime = System.nanoTime();
+            cachedLattice = new StateLattice(maze, forwardCost, turnCost);
+            if (SearchConfiguration.isVerbose()) {
+                System.out.println("State lattice built in " + ((System.nanoTime() - startTime) / 1000000L)
+                        + " ms");
+            }
+        }
+        return cachedLattice;
+    }
+
+    /**
+     * It is used to get the states reached by one move from given state.
+     *
+     * @param state
+     * @param successors
+     * @param costs
+     * @return int number of successors
+     */
+    int getSuccessors(int state, int[] successors, int[] costs) {
+        int slot = state * MOVE_COUNT;
+        int count = 0;
+        for (int move = 0; move < MOVE_COUNT; move++) {
+            int next = successor[slot + move];
+            if (next != NO_STATE) {
+                successors[count] = next;
+                costs[count++] = moveCost[move];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * It is used to get the states from which given state is reached by one move, for search from goal.
+     *
+     * @param state
+     * @param predecessors
+     * @param costs
+     * @return int number of predecessors
+     */
+    int getPredecessors(int state, int[] predecessors, int[] costs) {
+        int facing = getFacing(state);
+        int count = 0;
+        // Cell behind is reached by moving forward while facing opposite way
+        int behind = successor[(state - facing + OPPOSITE[facing]) * MOVE_COUNT];
+        if (behind != NO_STATE) {
+            predecessors[count] = getState(getCell(behind), facing);
+            costs[count++] = forwardCost;
+        }
+        int slot = state * MOVE_COUNT;
+        predecessors[count] = successor[slot + 1];
+        costs[count++] = turnCost;
+        predecessors[count] = successor[slot + 2];
+        costs[count++] = turnCost;
+        return count;
+    }
+
+    CompiledMaze getMaze() {
+        return maze;
+    }
+
+    int getForwardCost() {
+        return forwardCost;
+    }
+
+    int getTurnCost() {
+        return turnCost;
+    }
+
+    int getStateCount() {
+        return maze.getCellCount() * DIRECTION_COUNT;
+    }
+
+    static int getCell(int state) {
+        return state / DIRECTION_COUNT;
+    }
+
+    static int getFacing(int state) {
+        return state % DIRECTION_COUNT;
+    }
+
+    static int getState(int cell, int facing) {
+        return (cell * DIRECTION_COUNT) + facing;
+    }
+}
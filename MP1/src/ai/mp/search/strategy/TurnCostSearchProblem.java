@@ -0,0 +1,184 @@
+package ai.mp.search.strategy;
+
+/**
+ * It is the single goal problem on {@link StateLattice} of maze where turning costs more than moving forward.
+ * State is (cell id * 4) + facing, where facing is index of UP, DOWN, LEFT, RIGHT neighbor offset.
+ * Moves are read from successor table of lattice, or generated on the fly from maze when problem is created
+ * without lattice, so that search whose memory is bounded by depth keeps no maze sized table.
+ * <pre>
+ * Forward  - move to the faced cell at forward cost of lattice, {@link MazeConstant#FORWARD_COST} by default
+ * Turn     - face left or right of current facing in place at turn cost of lattice,
+ *            {@link MazeConstant#TURN_COST} by default
+ * </pre>
+ * Start position faces RIGHT. Every goal cell of maze is goal, so heuristic is the lowest over goal cells of
+ * manhattan distance plus the least number of turns needed to face every direction in which goal lies, or
+ * exact cost from {@link TurnHeuristicDatabase} if given.
+ *
+ * @author rudani2
+ *
+ */
+class TurnCostSearchProblem implements SearchProblem {
+
+    private static final int UP = StateLattice.UP;
+    private static final int DOWN = StateLattice.DOWN;
+    private static final int LEFT = StateLattice.LEFT;
+    private static final int RIGHT = StateLattice.RIGHT;
+
+    private final StateLattice lattice;
+    private final CompiledMaze maze;
+    private final int forwardCost;
+    private final int turnCost;
+    private final int[] goalCells;
+    private final TurnHeuristicDatabase database;
+
+    TurnCostSearchProblem(StateLattice lattice) {
+        this(lattice, null);
+    }
+
+    TurnCostSearchProblem(StateLattice lattice, TurnHeuristicDatabase database) {
+        this.lattice = lattice;
+        this.maze = lattice.getMaze();
+        this.forwardCost = lattice.getForwardCost();
+        this.turnCost = lattice.getTurnCost();
+        this.goalCells = maze.getGoalCells();
+        this.database = database;
+    }
+
+    /**
+     * It is used to create problem without lattice, whose moves are generated on the fly.
+     *
+     * @param maze
+     * @param forwardCost cost to move to faced cell
+     * @param turnCost cost to turn left or right in place
+     */
+    TurnCostSearchProblem(CompiledMaze maze, int forwardCost, int turnCost) {
+        if (maze.getCellCount() > (Integer.MAX_VALUE / StateLattice.DIRECTION_COUNT)) {
+            throw new IllegalArgumentException("Maze is too large to search with facing");
+        }
+        this.lattice = null;
+        this.maze = maze;
+        this.forwardCost = forwardCost;
+        this.turnCost = turnCost;
+        this.goalCells = maze.getGoalCells();
+        this.database = null;
+    }
+
+    @Override
+    public int getStartState() {
+        return StateLattice.getState(maze.getStartCell(), RIGHT);
+    }
+
+    @Override
+    public boolean isGoal(int state) {
+        return maze.isGoal(getCell(state));
+    }
+
+    @Override
+    public int getSuccessors(int state, int[] successors, int[] costs) {
+        if (lattice != null) {
+            return lattice.getSuccessors(state, successors, costs);
+        }
+        // Same move order as lattice, forward and then left and right turn
+        int cell = getCell(state);
+        int facing = StateLattice.getFacing(state);
+        int count = 0;
+        int forwardCell = cell + maze.getNeighborOffsets()[facing];
+        if (!maze.isWall(forwardCell)) {
+            successors[count] = StateLattice.getState(forwardCell, facing);
+            costs[count++] = forwardCost;
+        }
+        for (int turnFacing : StateLattice.TURNS[facing]) {
+            successors[count] = StateLattice.getState(cell, turnFacing);
+            costs[count++] = turnCost;
+        }
+        return count;
+    }
+
+    /**
+     * It is used to get the states from which given state is reached by one move, for search from goal.
+     * It needs problem created with lattice.
+     *
+     * @param state
+     * @param predecessors
+     * @param costs
+     * @return int number of predecessors
+     */
+    int getPredecessors(int state, int[] predecessors, int[] costs) {
+        return lattice.getPredecessors(state, predecessors, costs);
+    }
+
+    @Override
+    public int getMaxSuccessorCount() {
+        return StateLattice.MOVE_COUNT;
+    }
+
+    @Override
+    public long getHeuristic(int state) {
+        if (database != null) {
+            return database.getCostToGo(state);
+        }
+        int cell = getCell(state);
+        int facing = StateLattice.getFacing(state);
+        long lowestCost = Long.MAX_VALUE;
+        for (int goalCell : goalCells) {
+            lowestCost = Math.min(lowestCost, getGoalCost(cell, facing, goalCell));
+        }
+        return lowestCost == Long.MAX_VALUE ? 0L : lowestCost;
+    }
+
+    /**
+     * It is used to estimate cost to reach given goal cell from cell while facing given direction.
+     *
+     * @param cell
+     * @param facing
+     * @param goalCell
+     * @return long
+     */
+    private long getGoalCost(int cell, int facing, int goalCell) {
+        int rowDifference = maze.getRow(goalCell) - maze.getRow(cell);
+        int columnDifference = maze.getColumn(goalCell) - maze.getColumn(cell);
+        int verticalDirection = rowDifference < 0 ? UP : DOWN;
+        int horizontalDirection = columnDifference < 0 ? LEFT : RIGHT;
+        int turnCount;
+        if (rowDifference != 0 && columnDifference != 0) {
+            turnCount = (facing == verticalDirection || facing == horizontalDirection) ? 1 : 2;
+        } else if (rowDifference != 0) {
+            turnCount = getTurnCount(facing, verticalDirection);
+        } else if (columnDifference != 0) {
+            turnCount = getTurnCount(facing, horizontalDirection);
+        } else {
+            turnCount = 0;
+        }
+        return ((long) maze.getManhattanDistance(goalCell, cell) * forwardCost) + ((long) turnCount * turnCost);
+    }
+
+    /**
+     * It is used to count the turns needed to face given direction. Opposite direction needs two turns.
+     *
+     * @param facing
+     * @param direction
+     * @return int
+     */
+    private int getTurnCount(int facing, int direction) {
+        if (facing == direction) {
+            return 0;
+        }
+        int[] turns = StateLattice.TURNS[facing];
+        return (turns[0] == direction || turns[1] == direction) ? 1 : 2;
+    }
+
+    @Override
+    public int getCell(int state) {
+        return StateLattice.getCell(state);
+    }
+
+    @Override
+    public int getStateCount() {
+        return maze.getCellCount() * StateLattice.DIRECTION_COUNT;
+    }
+
+    @Override
+    public int[] getGoalOrder(int[] cellPath) {
+        return null;
+    }
+}
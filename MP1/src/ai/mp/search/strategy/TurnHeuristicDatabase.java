@@ -0,0 +1,201 @@
+package ai.mp.search.strategy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * It holds the exact cost to reach goal from every (cell, facing) state of {@link TurnCostSearchProblem}.
+ * It is built by Dijkstra search from goal states over reversed moves, so used as heuristic it is perfect
+ * and A * walks straight along cheapest path.
+ * <pre>
+ * costToGo  - cheapest cost from state to any goal cell, indexed by state (cell id * 4 + facing).
+ *             Integer.MAX_VALUE if goal can not be reached
+ * File      - saved next to maze file as maze file name + .turns, gzip compressed. Header holds move
+ *             costs, row count, column count and checksum of walls and goals, so file of changed maze
+ *             or costs is rebuilt.
+ *             Start position does not change cost to go, so it is not part of checksum
+ * </pre>
+ * Database is built once and reused by every penalty search on same maze, in this run or later runs.
+ *
+ * @author rudani2
+ *
+ */
+public class TurnHeuristicDatabase {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final String FILE_SUFFIX = ".turns";
+    private static final int FILE_MAGIC = 0x5455524E;
+
+    private static TurnHeuristicDatabase cachedDatabase;
+
+    private final StateLattice lattice;
+    private final int[] costToGo;
+
+    private TurnHeuristicDatabase(StateLattice lattice, int[] costToGo) {
+        this.lattice = lattice;
+        this.costToGo = costToGo;
+    }
+
+    /**
+     * It is used to get the database of given lattice. It is loaded from file saved next to maze file if that
+     * file matches the maze and move costs, otherwise it is built and saved.
+     *
+     * @param lattice
+     * @param mazeFile maze file name, null to keep database in memory only
+     * @return TurnHeuristicDatabase
+     */
+    static synchronized TurnHeuristicDatabase getInstance(StateLattice lattice, String mazeFile) {
+        if (cachedDatabase != null && cachedDatabase.lattice == lattice) {
+            return cachedDatabase;
+        }
+        long startTime = System.nanoTime();
+        File databaseFile = mazeFile == null ? null : new File(mazeFile + FILE_SUFFIX);
+        int[] costToGo = databaseFile == null ? null : load(databaseFile, lattice);
+        if (costToGo != null) {
+            if (SearchConfiguration.isVerbose()) {
+                System.out.println("Turn heuristic database loaded from " + databaseFile + " in "
+                        + ((System.nanoTime() - startTime) / 1000000L) + " ms");
+            }
+        } else {
+            costToGo = build(new TurnCostSearchProblem(lattice));
+            if (SearchConfiguration.isVerbose()) {
+                System.out.println("Turn heuristic database built in "
+                        + ((System.nanoTime() - startTime) / 1000000L) + " ms");
+            }
+            if (databaseFile != null) {
+                save(databaseFile, lattice, costToGo);
+            }
+        }
+        cachedDatabase = new TurnHeuristicDatabase(lattice, costToGo);
+        return cachedDatabase;
+    }
+
+    /**
+     * It is used to get the cheapest cost from given state to goal.
+     *
+     * @param state
+     * @return int cost or {@link #UNREACHABLE}
+     */
+    public int getCostToGo(int state) {
+        return costToGo[state];
+    }
+
+    /**
+     * It is used to run Dijkstra search from every goal state over reversed moves. Costs are small integers,
+     * so bucket queue is used as open list.
+     *
+     * @param problem
+     * @return int[] cost to go of every state
+     */
+    private static int[] build(TurnCostSearchProblem problem) {
+        int[] costToGo = new int[problem.getStateCount()];
+        Arrays.fill(costToGo, UNREACHABLE);
+        BucketQueue openState = new BucketQueue(problem.getStateCount());
+        for (int state = 0; state < costToGo.length; state++) {
+            if (problem.isGoal(state)) {
+                costToGo[state] = 0;
+                openState.offer(state, 0L);
+            }
+        }
+        int[] predecessors = new int[problem.getMaxSuccessorCount()];
+        int[] moveCosts = new int[problem.getMaxSuccessorCount()];
+        while (!openState.isEmpty()) {
+            int state = openState.poll();
+            int count = problem.getPredecessors(state, predecessors, moveCosts);
+            for (int i = 0; i < count; i++) {
+                int predecessor = predecessors[i];
+                int cost = costToGo[state] + moveCosts[i];
+                if (cost < costToGo[predecessor]) {
+                    costToGo[predecessor] = cost;
+                    openState.update(predecessor, cost);
+                }
+            }
+        }
+        return costToGo;
+    }
+
+    /**
+     * It is used to read database file. File which can not be read or which belongs to other maze or move
+     * costs is ignored.
+     *
+     * @param databaseFile
+     * @param lattice
+     * @return int[] cost to go of every state or null
+     */
+    private static int[] load(File databaseFile, StateLattice lattice) {
+        if (!databaseFile.isFile()) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(databaseFile))))) {
+            CompiledMaze maze = lattice.getMaze();
+            if (input.readInt() != FILE_MAGIC || input.readInt() != lattice.getForwardCost()
+                    || input.readInt() != lattice.getTurnCost() || input.readInt() != maze.getRowCount()
+                    || input.readInt() != maze.getColumnCount() || input.readLong() != getChecksum(maze)) {
+                return null;
+            }
+            int stateCount = input.readInt();
+            if (stateCount != lattice.getStateCount()) {
+                return null;
+            }
+            int[] costToGo = new int[stateCount];
+            for (int state = 0; state < costToGo.length; state++) {
+                costToGo[state] = input.readInt();
+            }
+            return costToGo;
+        } catch (IOException e) {
+            System.out.println("Ignoring unreadable turn heuristic database " + databaseFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * It is used to write database file. Database is still used from memory if file can not be written.
+     *
+     * @param databaseFile
+     * @param lattice
+     * @param costToGo
+     */
+    private static void save(File databaseFile, StateLattice lattice, int[] costToGo) {
+        CompiledMaze maze = lattice.getMaze();
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(databaseFile))))) {
+            output.writeInt(FILE_MAGIC);
+            output.writeInt(lattice.getForwardCost());
+            output.writeInt(lattice.getTurnCost());
+            output.writeInt(maze.getRowCount());
+            output.writeInt(maze.getColumnCount());
+            output.writeLong(getChecksum(maze));
+            output.writeInt(costToGo.length);
+            for (int cost : costToGo) {
+                output.writeInt(cost);
+            }
+        } catch (IOException e) {
+            System.out.println("Could not save turn heuristic database " + databaseFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * It is used to calculate checksum of walls and goals, so that change of either is detected.
+     *
+     * @param maze
+     * @return long
+     */
+    private static long getChecksum(CompiledMaze maze) {
+        CRC32 checksum = new CRC32();
+        for (int cell = 0; cell < maze.getCellCount(); cell++) {
+            checksum.update(maze.isWall(cell) ? 1 : (maze.isGoal(cell) ? 2 : 0));
+        }
+        return checksum.getValue();
+    }
+}